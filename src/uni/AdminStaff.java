@@ -86,41 +86,27 @@ public class AdminStaff extends User {
     }
 
     /**
-     * Generate reports based on system data
+     * Generate a report from students and offerings in a single streaming pass
      * 
      * @param reportType Type of report to generate
+     * @param students   Students to report on
+     * @param offerings  Offerings to report on, together with their enrollments
      * @return Report content as a string
      */
-    public String generateReport(String reportType) {
-        StringBuilder report = new StringBuilder();
-
-        switch (reportType) {
-            case "EnrollmentSummary":
-                report.append("=== Enrollment Summary Report ===\n");
-                report.append("Generated by: ").append(getName()).append("\n");
-                report.append("Date: ").append(java.time.LocalDate.now()).append("\n");
-                report.append("This report would contain enrollment statistics\n");
-                break;
-
-            case "FacultyWorkload":
-                report.append("=== Faculty Workload Report ===\n");
-                report.append("Generated by: ").append(getName()).append("\n");
-                report.append("Date: ").append(java.time.LocalDate.now()).append("\n");
-                report.append("This report would contain faculty teaching loads\n");
-                break;
-
-            case "StudentPerformance":
-                report.append("=== Student Performance Report ===\n");
-                report.append("Generated by: ").append(getName()).append("\n");
-                report.append("Date: ").append(java.time.LocalDate.now()).append("\n");
-                report.append("This report would contain student GPA statistics\n");
-                break;
-
-            default:
-                report.append("Unknown report type: ").append(reportType);
-        }
+    public String generateReport(String reportType, Iterable<Student> students, Iterable<CourseOffering> offerings) {
+        return generateReport(reportType, ReportAggregator.aggregate(students, offerings));
+    }
 
-        return report.toString();
+    /**
+     * Generate a report from totals that were already aggregated, e.g. to
+     * produce all report types from one scan
+     * 
+     * @param reportType Type of report to generate
+     * @param aggregates Aggregated totals
+     * @return Report content as a string
+     */
+    public String generateReport(String reportType, ReportAggregator aggregates) {
+        return aggregates.format(reportType, getName());
     }
 
     @Override
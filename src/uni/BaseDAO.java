@@ -0,0 +1,149 @@
+package uni;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Common plumbing for the data access objects
+ *
+ * Borrows a pooled connection for each call, runs the SQL through the
+ * connection's prepared statement cache and hands the connection back.
+ */
+public abstract class BaseDAO {
+    protected final DatabaseManager databaseManager;
+
+    /**
+     * Maps the current row of a result set to an object
+     */
+    protected interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds parameters onto a prepared statement
+     */
+    protected interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Work performed inside a writer transaction
+     */
+    protected interface Transaction<T> {
+        T run(Connection conn, StatementCache cache) throws SQLException;
+    }
+
+    /**
+     * Constructor for BaseDAO class
+     *
+     * @param databaseManager Connection pool to borrow from
+     */
+    protected BaseDAO(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Run a query on a read connection and map every row
+     *
+     * @param sql    SQL query
+     * @param binder Parameter binder
+     * @param mapper Row mapper
+     * @return Mapped rows
+     * @throws SQLException if the query fails
+     */
+    protected <T> List<T> queryList(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        Connection conn = databaseManager.getReadConnection();
+        try {
+            PreparedStatement ps = databaseManager.getStatementCache(conn).prepare(sql);
+            binder.bind(ps);
+            List<T> result = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapper.map(rs));
+                }
+            }
+            return result;
+        } finally {
+            databaseManager.releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Run a query on a read connection and map the first row
+     *
+     * @param sql    SQL query
+     * @param binder Parameter binder
+     * @param mapper Row mapper
+     * @return Mapped row, or null if the query returned nothing
+     * @throws SQLException if the query fails
+     */
+    protected <T> T queryOne(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        Connection conn = databaseManager.getReadConnection();
+        try {
+            PreparedStatement ps = databaseManager.getStatementCache(conn).prepare(sql);
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapper.map(rs) : null;
+            }
+        } finally {
+            databaseManager.releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Run work on the writer connection as a single transaction
+     *
+     * @param work Work to run
+     * @return Result of the work
+     * @throws SQLException if the work fails; the transaction is rolled back
+     */
+    protected <T> T inTransaction(Transaction<T> work) throws SQLException {
+        Connection conn = databaseManager.getWriteConnection();
+        try {
+            T result = work.run(conn, databaseManager.getStatementCache(conn));
+            conn.commit();
+            return result;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            databaseManager.releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Run one or more updates on the writer connection as a single transaction
+     *
+     * @param sql     SQL statements, executed in order
+     * @param binders One binder per statement
+     * @return Total number of rows affected
+     * @throws SQLException if any statement fails; the transaction is rolled back
+     */
+    protected int update(String[] sql, Binder[] binders) throws SQLException {
+        return inTransaction((conn, cache) -> {
+            int affected = 0;
+            for (int i = 0; i < sql.length; i++) {
+                PreparedStatement ps = cache.prepare(sql[i]);
+                binders[i].bind(ps);
+                affected += ps.executeUpdate();
+            }
+            return affected;
+        });
+    }
+
+    /**
+     * Run a single update on the writer connection
+     *
+     * @param sql    SQL statement
+     * @param binder Parameter binder
+     * @return Number of rows affected
+     * @throws SQLException if the statement fails
+     */
+    protected int update(String sql, Binder binder) throws SQLException {
+        return update(new String[] { sql }, new Binder[] { binder });
+    }
+}
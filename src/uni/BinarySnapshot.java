@@ -0,0 +1,488 @@
+package uni;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of the university data
+ *
+ * Every string is stored once in a string table and referenced by index, and
+ * every entity is a fixed-width record of ints, so loading is a sequential walk
+ * over a memory-mapped file rather than text parsing. Layout:
+ *
+ * <pre>
+ * header   magic, version, then the count of each section below
+ * strings  offsets[count + 1], UTF-8 bytes
+ * sections departments, users, courses, prerequisites, offerings,
+ *          schedules, enrollments
+ * </pre>
+ */
+public class BinarySnapshot {
+    private static final int MAGIC = 0x554E4953; // "UNIS"
+    private static final int VERSION = 1;
+    private static final int NONE = -1;
+    private static final int HEADER_INTS = 10;
+
+    // Record widths in ints
+    private static final int DEPARTMENT_INTS = 2;
+    private static final int USER_INTS = 10;
+    private static final int COURSE_INTS = 8;
+    private static final int OFFERING_INTS = 5;
+    private static final int SCHEDULE_INTS = 6;
+    private static final int ENROLLMENT_INTS = 6;
+
+    // User type codes
+    private static final int STUDENT = 0;
+    private static final int FACULTY = 1;
+    private static final int ADMIN_STAFF = 2;
+    private static final int SYSTEM_ADMIN = 3;
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Write a snapshot of the given data
+     *
+     * @param data University data to write
+     * @param file Destination file; replaced atomically
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(UniversityData data, Path file) throws IOException {
+        StringTable strings = new StringTable();
+        List<Department> departments = data.getDepartments();
+        List<User> users = data.getUsers();
+        List<Course> courses = data.getCourses();
+        List<CourseOffering> offerings = data.getOfferings();
+        List<Enrollment> enrollments = data.getEnrollments();
+
+        Map<Object, Integer> index = new IdentityHashMap<>();
+        indexAll(index, departments);
+        indexAll(index, users);
+        indexAll(index, courses);
+        indexAll(index, offerings);
+
+        IntBuffer body = new IntBuffer();
+        for (Department department : departments) {
+            body.add(strings.ref(department.getDepartmentId()));
+            body.add(strings.ref(department.getName()));
+        }
+
+        for (User user : users) {
+            int[] record = new int[USER_INTS];
+            record[1] = strings.ref(user.getUserId());
+            record[2] = strings.ref(user.getUsername());
+            record[3] = strings.ref(user.getPassword());
+            record[4] = strings.ref(user.getName());
+            record[5] = strings.ref(user.getEmail());
+            record[6] = strings.ref(user.getContactInfo());
+            if (user instanceof Student) {
+                Student student = (Student) user;
+                record[0] = STUDENT;
+                record[7] = strings.ref(student.getStudentId());
+                record[8] = student.getAdmissionDate() != null ? (int) student.getAdmissionDate().toEpochDay()
+                        : Integer.MIN_VALUE;
+                record[9] = strings.ref(student.getAcademicStatus());
+            } else if (user instanceof Faculty) {
+                Faculty faculty = (Faculty) user;
+                record[0] = FACULTY;
+                record[7] = strings.ref(faculty.getFacultyId());
+                record[8] = indexOf(index, faculty.getDepartment());
+                record[9] = strings.ref(faculty.getExpertise());
+            } else if (user instanceof AdminStaff) {
+                AdminStaff staff = (AdminStaff) user;
+                record[0] = ADMIN_STAFF;
+                record[7] = strings.ref(staff.getStaffId());
+                record[8] = indexOf(index, staff.getDepartment());
+                record[9] = strings.ref(staff.getRole());
+            } else if (user instanceof SystemAdmin) {
+                SystemAdmin admin = (SystemAdmin) user;
+                record[0] = SYSTEM_ADMIN;
+                record[7] = strings.ref(admin.getAdminId());
+                record[8] = admin.getSecurityLevel();
+                record[9] = NONE;
+            } else {
+                throw new IllegalArgumentException("Unknown user type: " + user.getUserType());
+            }
+            body.addAll(record);
+        }
+
+        IntBuffer prerequisites = new IntBuffer();
+        for (Course course : courses) {
+            List<Course> prereqs = course.getPrerequisites();
+            body.add(strings.ref(course.getCourseId()));
+            body.add(strings.ref(course.getTitle()));
+            body.add(strings.ref(course.getDescription()));
+            body.add(course.getCreditHours());
+            body.add(course.getMaxCapacity());
+            body.add(indexOf(index, course.getDepartment()));
+            body.add(prerequisites.size());
+            body.add(prereqs.size());
+            for (Course prereq : prereqs) {
+                prerequisites.add(indexOf(index, prereq));
+            }
+        }
+        body.addAll(prerequisites);
+
+        int scheduleCount = 0;
+        IntBuffer schedules = new IntBuffer();
+        for (CourseOffering offering : offerings) {
+            body.add(offering.getOfferingId());
+            body.add(indexOf(index, offering.getCourse()));
+            body.add(strings.ref(offering.getSemester()));
+            body.add(offering.getYear());
+            body.add(indexOf(index, offering.getFaculty()));
+            for (CourseSchedule schedule : offering.getSchedules()) {
+                schedules.add(index.get(offering));
+                schedules.add(schedule.getScheduleId());
+                schedules.add(strings.ref(schedule.getDayOfWeek()));
+                schedules.add(schedule.getStartTime().toSecondOfDay());
+                schedules.add(schedule.getEndTime().toSecondOfDay());
+                schedules.add(strings.ref(schedule.getLocation()));
+                scheduleCount++;
+            }
+        }
+        body.addAll(schedules);
+
+        for (Enrollment enrollment : enrollments) {
+            body.add(enrollment.getEnrollmentId());
+            body.add(indexOf(index, enrollment.getStudent()));
+            body.add(indexOf(index, enrollment.getCourseOffering()));
+            body.add((int) enrollment.getEnrollmentDate().toEpochDay());
+            body.add(strings.ref(enrollment.getGrade()));
+            body.add(strings.ref(enrollment.getStatus()));
+        }
+
+        byte[] stringBytes = strings.bytes();
+        int size = 4 * (HEADER_INTS + strings.size() + 1 + body.size()) + stringBytes.length;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(strings.size()).putInt(departments.size())
+                .putInt(users.size()).putInt(courses.size()).putInt(prerequisites.size())
+                .putInt(offerings.size()).putInt(scheduleCount).putInt(enrollments.size());
+        strings.writeOffsets(buffer);
+        buffer.put(stringBytes);
+        body.writeTo(buffer);
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load and link a snapshot through a memory-mapped buffer
+     *
+     * @param file Snapshot file
+     * @return Restored university data
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static UniversityData read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a university snapshot: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        int stringCount = buffer.getInt();
+        int departmentCount = buffer.getInt();
+        int userCount = buffer.getInt();
+        int courseCount = buffer.getInt();
+        int prerequisiteCount = buffer.getInt();
+        int offeringCount = buffer.getInt();
+        int scheduleCount = buffer.getInt();
+        int enrollmentCount = buffer.getInt();
+
+        StringReader strings = new StringReader(buffer, stringCount);
+        long expectedSize = buffer.position() + 4L * (departmentCount * DEPARTMENT_INTS + userCount * USER_INTS +
+                courseCount * COURSE_INTS + prerequisiteCount + offeringCount * OFFERING_INTS +
+                scheduleCount * SCHEDULE_INTS + enrollmentCount * ENROLLMENT_INTS);
+        if (expectedSize != buffer.limit()) {
+            throw new IOException("Snapshot is truncated or corrupt: " + file);
+        }
+        UniversityData data = new UniversityData();
+
+        Department[] departments = new Department[departmentCount];
+        for (int i = 0; i < departmentCount; i++) {
+            departments[i] = new Department(strings.get(buffer.getInt()), strings.get(buffer.getInt()));
+            data.addDepartment(departments[i]);
+        }
+
+        User[] users = new User[userCount];
+        for (int i = 0; i < userCount; i++) {
+            int type = buffer.getInt();
+            String userId = strings.get(buffer.getInt());
+            String username = strings.get(buffer.getInt());
+            String password = strings.get(buffer.getInt());
+            String name = strings.get(buffer.getInt());
+            String email = strings.get(buffer.getInt());
+            String contactInfo = strings.get(buffer.getInt());
+            int a = buffer.getInt();
+            int b = buffer.getInt();
+            int c = buffer.getInt();
+
+            switch (type) {
+                case STUDENT:
+                    users[i] = new Student(userId, username, password, name, email, contactInfo, strings.get(a),
+                            b != Integer.MIN_VALUE ? LocalDate.ofEpochDay(b) : null, strings.get(c));
+                    break;
+                case FACULTY: {
+                    Department department = b != NONE ? departments[b] : null;
+                    Faculty faculty = new Faculty(userId, username, password, name, email, contactInfo,
+                            strings.get(a), department, strings.get(c));
+                    if (department != null) {
+                        department.addFaculty(faculty);
+                    }
+                    users[i] = faculty;
+                    break;
+                }
+                case ADMIN_STAFF:
+                    users[i] = new AdminStaff(userId, username, password, name, email, contactInfo, strings.get(a),
+                            b != NONE ? departments[b] : null, strings.get(c));
+                    break;
+                case SYSTEM_ADMIN:
+                    users[i] = new SystemAdmin(userId, username, password, name, email, contactInfo,
+                            strings.get(a), b);
+                    break;
+                default:
+                    throw new IOException("Unknown user type code " + type);
+            }
+            data.addUser(users[i]);
+        }
+
+        Course[] courses = new Course[courseCount];
+        int[] prereqStart = new int[courseCount];
+        int[] prereqLength = new int[courseCount];
+        for (int i = 0; i < courseCount; i++) {
+            String courseId = strings.get(buffer.getInt());
+            String title = strings.get(buffer.getInt());
+            String description = strings.get(buffer.getInt());
+            int creditHours = buffer.getInt();
+            int maxCapacity = buffer.getInt();
+            int departmentIndex = buffer.getInt();
+            prereqStart[i] = buffer.getInt();
+            prereqLength[i] = buffer.getInt();
+
+            Department department = departmentIndex != NONE ? departments[departmentIndex] : null;
+            courses[i] = new Course(courseId, title, description, creditHours, maxCapacity, department,
+                    data.getPrerequisiteGraph());
+            if (department != null) {
+                department.addCourse(courses[i]);
+            }
+            data.addCourse(courses[i]);
+        }
+
+        int[] prerequisites = new int[prerequisiteCount];
+        buffer.asIntBuffer().get(prerequisites);
+        buffer.position(buffer.position() + 4 * prerequisiteCount);
+        for (int i = 0; i < courseCount; i++) {
+            for (int j = 0; j < prereqLength[i]; j++) {
+                courses[i].addPrerequisite(courses[prerequisites[prereqStart[i] + j]]);
+            }
+        }
+
+        CourseOffering[] offerings = new CourseOffering[offeringCount];
+        for (int i = 0; i < offeringCount; i++) {
+            int offeringId = buffer.getInt();
+            Course course = courses[buffer.getInt()];
+            String semester = strings.get(buffer.getInt());
+            int year = buffer.getInt();
+            int facultyIndex = buffer.getInt();
+
+            offerings[i] = new CourseOffering(offeringId, course, semester, year);
+            if (facultyIndex != NONE) {
+                ((Faculty) users[facultyIndex]).assignCourse(offerings[i]);
+            }
+            data.addOffering(offerings[i]);
+        }
+
+        for (int i = 0; i < scheduleCount; i++) {
+            CourseOffering offering = offerings[buffer.getInt()];
+            int scheduleId = buffer.getInt();
+            String day = strings.get(buffer.getInt());
+            LocalTime start = LocalTime.ofSecondOfDay(buffer.getInt());
+            LocalTime end = LocalTime.ofSecondOfDay(buffer.getInt());
+            offering.addSchedule(new CourseSchedule(scheduleId, day, start, end, strings.get(buffer.getInt())));
+        }
+
+        for (int i = 0; i < enrollmentCount; i++) {
+            int enrollmentId = buffer.getInt();
+            Student student = (Student) users[buffer.getInt()];
+            CourseOffering offering = offerings[buffer.getInt()];
+            LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+            String grade = strings.get(buffer.getInt());
+            String status = strings.get(buffer.getInt());
+
+            Enrollment enrollment = new Enrollment(enrollmentId, student, offering, date, grade, status);
+            if (!offering.addEnrollment(enrollment)) {
+                // Drop it from the student too, so no one holds an uncounted seat
+                System.err.println("Snapshot enrollment exceeds capacity, skipped: " + enrollment);
+                continue;
+            }
+            student.addEnrollment(enrollment);
+            data.addEnrollment(enrollment);
+        }
+
+        return data;
+    }
+
+    private static void indexAll(Map<Object, Integer> index, List<?> items) {
+        for (int i = 0; i < items.size(); i++) {
+            index.put(items.get(i), i);
+        }
+    }
+
+    private static int indexOf(Map<Object, Integer> index, Object item) {
+        if (item == null) {
+            return NONE;
+        }
+        Integer position = index.get(item);
+        if (position == null) {
+            throw new IllegalArgumentException("Snapshot references an entity outside the data set: " + item);
+        }
+        return position;
+    }
+
+    /**
+     * Growable int array used while building sections
+     */
+    private static class IntBuffer {
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(int[] record) {
+            for (int value : record) {
+                add(value);
+            }
+        }
+
+        void addAll(IntBuffer other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            buffer.asIntBuffer().put(values, 0, size);
+            buffer.position(buffer.position() + 4 * size);
+        }
+    }
+
+    /**
+     * Deduplicating string table built while writing
+     */
+    private static class StringTable {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+        private int byteLength;
+
+        int ref(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer ref = refs.get(value);
+            if (ref == null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ref = encoded.size();
+                refs.put(value, ref);
+                encoded.add(bytes);
+                byteLength += bytes.length;
+            }
+            return ref;
+        }
+
+        int size() {
+            return encoded.size();
+        }
+
+        void writeOffsets(ByteBuffer buffer) {
+            int offset = 0;
+            for (byte[] bytes : encoded) {
+                buffer.putInt(offset);
+                offset += bytes.length;
+            }
+            buffer.putInt(offset);
+        }
+
+        byte[] bytes() {
+            byte[] all = new byte[byteLength];
+            int offset = 0;
+            for (byte[] bytes : encoded) {
+                System.arraycopy(bytes, 0, all, offset, bytes.length);
+                offset += bytes.length;
+            }
+            return all;
+        }
+    }
+
+    /**
+     * Lazily decoding view of the string table in a mapped snapshot
+     */
+    private static class StringReader {
+        private final ByteBuffer buffer;
+        private final int[] offsets;
+        private final int dataStart;
+        private final String[] decoded;
+
+        StringReader(ByteBuffer buffer, int count) {
+            this.offsets = new int[count + 1];
+            buffer.asIntBuffer().get(offsets);
+            buffer.position(buffer.position() + 4 * offsets.length);
+            this.buffer = buffer.duplicate();
+            this.dataStart = buffer.position();
+            this.decoded = new String[count];
+            buffer.position(dataStart + offsets[count]);
+        }
+
+        String get(int ref) {
+            if (ref == NONE) {
+                return null;
+            }
+            String value = decoded[ref];
+            if (value == null) {
+                byte[] bytes = new byte[offsets[ref + 1] - offsets[ref]];
+                buffer.get(dataStart + offsets[ref], bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                decoded[ref] = value;
+            }
+            return value;
+        }
+    }
+}
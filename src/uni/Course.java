@@ -1,7 +1,10 @@
 package uni;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Course class for university courses
@@ -10,13 +13,43 @@ public class Course {
     private String courseId;
     private String title;
     private String description;
-    private int creditHours;
-    private int maxCapacity;
+    private volatile int creditHours;
+    private volatile int maxCapacity;
     private Department department;
-    private List<Course> prerequisites;
+    private final List<Course> prerequisites = new CopyOnWriteArrayList<>();
+    private final List<Course> prerequisitesView = Collections.unmodifiableList(prerequisites);
+    private final PrerequisiteGraph graph; // Graph of the catalog this course belongs to
+    private final int ordinal; // Dense index in the prerequisite graph
+    private final Set<Enrollment> gpaEnrollments = ConcurrentHashMap.newKeySet(); // Tracked, weighted by creditHours
+    private final List<CapacityListener> capacityListeners = new CopyOnWriteArrayList<>();
+    private final List<CreditHoursListener> creditHoursListeners = new CopyOnWriteArrayList<>();
 
     /**
-     * Constructor for Course class
+     * Callback for changes in the maximum capacity
+     */
+    public interface CapacityListener {
+        /**
+         * Called after the maximum capacity has changed
+         * 
+         * @param course Course whose capacity changed
+         */
+        void capacityChanged(Course course);
+    }
+
+    /**
+     * Callback for changes in the credit hours
+     */
+    public interface CreditHoursListener {
+        /**
+         * Called after the credit hours have changed
+         * 
+         * @param course Course whose credit hours changed
+         */
+        void creditHoursChanged(Course course);
+    }
+
+    /**
+     * Constructor for Course class using the default prerequisite graph
      * 
      * @param courseId    Course ID
      * @param title       Course title
@@ -27,13 +60,30 @@ public class Course {
      */
     public Course(String courseId, String title, String description, int creditHours, int maxCapacity,
             Department department) {
+        this(courseId, title, description, creditHours, maxCapacity, department, PrerequisiteGraph.getInstance());
+    }
+
+    /**
+     * Constructor for Course class
+     * 
+     * @param courseId    Course ID
+     * @param title       Course title
+     * @param description Course description
+     * @param creditHours Number of credit hours
+     * @param maxCapacity Maximum enrollment capacity
+     * @param department  Department offering the course
+     * @param graph       Prerequisite graph of the catalog the course belongs to
+     */
+    public Course(String courseId, String title, String description, int creditHours, int maxCapacity,
+            Department department, PrerequisiteGraph graph) {
         this.courseId = courseId;
         this.title = title;
         this.description = description;
         this.creditHours = creditHours;
         this.maxCapacity = maxCapacity;
         this.department = department;
-        this.prerequisites = new ArrayList<>();
+        this.graph = graph;
+        this.ordinal = graph.register(courseId);
     }
 
     // Getters and setters
@@ -66,6 +116,14 @@ public class Course {
             throw new IllegalArgumentException("Credit hours must be positive");
         }
         this.creditHours = creditHours;
+
+        // Graded enrollments weigh their GPA contribution by the credit hours
+        for (Enrollment enrollment : gpaEnrollments) {
+            enrollment.creditHoursChanged();
+        }
+        for (CreditHoursListener listener : creditHoursListeners) {
+            listener.creditHoursChanged(this);
+        }
     }
 
     public int getMaxCapacity() {
@@ -77,6 +135,9 @@ public class Course {
             throw new IllegalArgumentException("Max capacity must be positive");
         }
         this.maxCapacity = maxCapacity;
+        for (CapacityListener listener : capacityListeners) {
+            listener.capacityChanged(this);
+        }
     }
 
     public Department getDepartment() {
@@ -87,8 +148,69 @@ public class Course {
         this.department = department;
     }
 
+    /**
+     * Register a listener notified whenever the maximum capacity changes
+     * 
+     * @param listener Listener to add
+     */
+    public void addCapacityListener(CapacityListener listener) {
+        capacityListeners.add(listener);
+    }
+
+    /**
+     * Remove a capacity listener
+     * 
+     * @param listener Listener to remove
+     * @return true if the listener was registered, false otherwise
+     */
+    public boolean removeCapacityListener(CapacityListener listener) {
+        return capacityListeners.remove(listener);
+    }
+
+    /**
+     * Register a listener notified after the credit hours change
+     * 
+     * @param listener Listener to add
+     */
+    public void addCreditHoursListener(CreditHoursListener listener) {
+        creditHoursListeners.add(listener);
+    }
+
+    /**
+     * Remove a credit hours listener
+     * 
+     * @param listener Listener to remove
+     * @return true if the listener was registered, false otherwise
+     */
+    public boolean removeCreditHoursListener(CreditHoursListener listener) {
+        return creditHoursListeners.remove(listener);
+    }
+
+    int getOrdinal() {
+        return ordinal;
+    }
+
+    PrerequisiteGraph getPrerequisiteGraph() {
+        return graph;
+    }
+
+    /**
+     * Register or unregister an enrollment whose GPA contribution depends on
+     * this course's credit hours
+     *
+     * @param enrollment Enrollment of an offering of this course
+     * @param counted    Whether the enrollment currently counts towards the GPA
+     */
+    void setCountsTowardsGpa(Enrollment enrollment, boolean counted) {
+        if (counted) {
+            gpaEnrollments.add(enrollment);
+        } else {
+            gpaEnrollments.remove(enrollment);
+        }
+    }
+
     public List<Course> getPrerequisites() {
-        return new ArrayList<>(prerequisites); // Return a copy to preserve encapsulation
+        return prerequisitesView; // Shared read-only view; writes copy the backing array
     }
 
     /**
@@ -97,15 +219,16 @@ public class Course {
      * @param course Prerequisite course
      * @return true if addition successful, false otherwise
      */
-    public boolean addPrerequisite(Course course) {
-        // Check for circular dependency
-        if (course.equals(this) || course.hasPrerequisite(this)) {
-            return false; // Circular dependency detected
+    public synchronized boolean addPrerequisite(Course course) {
+        if (course.graph != graph) {
+            throw new IllegalArgumentException("Prerequisite belongs to a different catalog");
         }
-
         if (prerequisites.contains(course)) {
             return false; // Already a prerequisite
         }
+        if (!graph.addEdge(ordinal, course.ordinal)) {
+            return false; // Circular dependency detected
+        }
 
         prerequisites.add(course);
         return true;
@@ -117,8 +240,12 @@ public class Course {
      * @param course Prerequisite course to remove
      * @return true if removal successful, false otherwise
      */
-    public boolean removePrerequisite(Course course) {
-        return prerequisites.remove(course);
+    public synchronized boolean removePrerequisite(Course course) {
+        if (!prerequisites.remove(course)) {
+            return false;
+        }
+        graph.removeEdge(ordinal, course.ordinal);
+        return true;
     }
 
     /**
@@ -128,19 +255,7 @@ public class Course {
      * @return true if course is a prerequisite, false otherwise
      */
     public boolean hasPrerequisite(Course course) {
-        // Direct prerequisite
-        if (prerequisites.contains(course)) {
-            return true;
-        }
-
-        // Indirect prerequisite (recursive check)
-        for (Course prereq : prerequisites) {
-            if (prereq.hasPrerequisite(course)) {
-                return true;
-            }
-        }
-
-        return false;
+        return course.graph == graph && graph.isAncestor(ordinal, course.ordinal);
     }
 
     @Override
@@ -0,0 +1,109 @@
+package uni;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Data access object for courses
+ *
+ * Table: courses(course_id, title, description, credit_hours, max_capacity,
+ * department_id).
+ */
+public class CourseDAO extends BaseDAO {
+    private static final String SELECT_COLUMNS = "SELECT course_id, title, description, credit_hours, " +
+            "max_capacity FROM courses ";
+    private static final String FIND_BY_ID = SELECT_COLUMNS + "WHERE course_id = ? AND department_id = ?";
+    private static final String FIND_BY_DEPARTMENT = SELECT_COLUMNS + "WHERE department_id = ? ORDER BY course_id";
+    private static final String UPSERT = "INSERT OR REPLACE INTO courses " +
+            "(course_id, title, description, credit_hours, max_capacity, department_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_CAPACITY = "UPDATE courses SET max_capacity = ? WHERE course_id = ? " +
+            "AND department_id IS ?"; // IS matches courses saved without a department
+
+    private final PrerequisiteGraph graph;
+
+    /**
+     * Constructor for CourseDAO class. Loaded courses get a prerequisite graph
+     * of their own.
+     *
+     * @param databaseManager Connection pool to borrow from
+     */
+    public CourseDAO(DatabaseManager databaseManager) {
+        this(databaseManager, new PrerequisiteGraph());
+    }
+
+    /**
+     * Constructor for CourseDAO class
+     *
+     * @param databaseManager Connection pool to borrow from
+     * @param graph           Prerequisite graph of the catalog the loaded courses belong to
+     */
+    public CourseDAO(DatabaseManager databaseManager, PrerequisiteGraph graph) {
+        super(databaseManager);
+        this.graph = graph;
+    }
+
+    /**
+     * Find a course offered by a department
+     *
+     * @param courseId   Course ID to look up
+     * @param department Department offering the course
+     * @return Course, or null if not found
+     * @throws SQLException if the query fails
+     */
+    public Course findById(String courseId, Department department) throws SQLException {
+        return queryOne(FIND_BY_ID, ps -> {
+            ps.setString(1, courseId);
+            ps.setString(2, department.getDepartmentId());
+        }, rs -> mapCourse(rs, department));
+    }
+
+    /**
+     * Load every course offered by a department
+     *
+     * @param department Department to load courses for
+     * @return List of courses ordered by course ID
+     * @throws SQLException if the query fails
+     */
+    public List<Course> findByDepartment(Department department) throws SQLException {
+        return queryList(FIND_BY_DEPARTMENT, ps -> ps.setString(1, department.getDepartmentId()),
+                rs -> mapCourse(rs, department));
+    }
+
+    /**
+     * Insert or replace a course
+     *
+     * @param course Course to save
+     * @throws SQLException if the update fails
+     */
+    public void save(Course course) throws SQLException {
+        update(UPSERT, ps -> {
+            ps.setString(1, course.getCourseId());
+            ps.setString(2, course.getTitle());
+            ps.setString(3, course.getDescription());
+            ps.setInt(4, course.getCreditHours());
+            ps.setInt(5, course.getMaxCapacity());
+            ps.setString(6, course.getDepartment() != null ? course.getDepartment().getDepartmentId() : null);
+        });
+    }
+
+    /**
+     * Persist a capacity change
+     *
+     * @param course Course whose capacity changed
+     * @return true if a row was updated, false otherwise
+     * @throws SQLException if the update fails
+     */
+    public boolean updateCapacity(Course course) throws SQLException {
+        return update(UPDATE_CAPACITY, ps -> {
+            ps.setInt(1, course.getMaxCapacity());
+            ps.setString(2, course.getCourseId());
+            ps.setString(3, course.getDepartment() != null ? course.getDepartment().getDepartmentId() : null);
+        }) > 0;
+    }
+
+    private Course mapCourse(ResultSet rs, Department department) throws SQLException {
+        return new Course(rs.getString("course_id"), rs.getString("title"), rs.getString("description"),
+                rs.getInt("credit_hours"), rs.getInt("max_capacity"), department, graph);
+    }
+}
@@ -1,19 +1,61 @@
 package uni;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * CourseOffering class for instances of courses in specific semesters
  */
 public class CourseOffering {
+    // Recount enrollments on every seat query and fail fast if the live counter
+    // drifts. Meant for single-threaded debugging runs.
+    private static final boolean CHECK_SEAT_INVARIANT = Boolean.getBoolean("uni.checkSeatInvariant");
+
     private int offeringId;
     private Course course;
     private String semester;
     private int year;
-    private Faculty faculty;
-    private List<Enrollment> enrollments;
-    private List<CourseSchedule> schedules;
+    private volatile Faculty faculty;
+    private final List<Enrollment> enrollments = new CopyOnWriteArrayList<>();
+    private final List<Enrollment> enrollmentsView = Collections.unmodifiableList(enrollments);
+    private volatile List<CourseSchedule> schedules = Collections.emptyList(); // Republished on change
+    private final ScheduleIndex.Timeline timeline = new ScheduleIndex.Timeline(); // Indexed schedules
+    private WeekBitmap weekBitmap; // Slots of the schedules, built on demand
+    private volatile long scheduleVersion; // Bumped whenever a meeting time changes
+    private final AtomicInteger seatsTaken = new AtomicInteger(); // Enrolled plus reserved seats
+    private final AtomicInteger reservedSeats = new AtomicInteger(); // Reserved but not yet confirmed
+    private final ReadWriteLock seatGate = new ReentrantReadWriteLock(); // Shared by seat takers
+    private final ConcurrentLinkedDeque<Student> waitlist = new ConcurrentLinkedDeque<>(); // FIFO
+    private final Set<String> waitlistedIds = ConcurrentHashMap.newKeySet(); // Student IDs on the waitlist
+    private final AtomicBoolean promoting = new AtomicBoolean();
+    private final List<SeatListener> seatListeners = new CopyOnWriteArrayList<>();
+    private final Collection<Student> roster = new RosterView(); // Live view of the enrolled students
+
+    /**
+     * Callback for changes in the number of taken seats
+     */
+    public interface SeatListener {
+        /**
+         * Called after a seat has been taken or freed
+         * 
+         * @param offering Offering whose seat count changed
+         * @param delta    +1 when a seat was taken, -1 when one was freed
+         */
+        void seatsChanged(CourseOffering offering, int delta);
+    }
 
     /**
      * Constructor for CourseOffering class
@@ -28,8 +70,6 @@ public class CourseOffering {
         this.course = course;
         this.semester = semester;
         this.year = year;
-        this.enrollments = new ArrayList<>();
-        this.schedules = new ArrayList<>();
     }
 
     // Getters and setters
@@ -53,16 +93,52 @@ public class CourseOffering {
         return faculty;
     }
 
+    /**
+     * Assign the instructor of this offering. The previous instructor, if any,
+     * stops counting its credit hours and students.
+     * 
+     * @param faculty New instructor, or null to leave the offering unassigned
+     */
     public void setFaculty(Faculty faculty) {
+        if (faculty != null) {
+            faculty.assignCourse(this);
+            return;
+        }
+        Faculty previous = this.faculty;
+        if (previous != null) {
+            previous.removeCourse(this);
+        }
+    }
+
+    /**
+     * Record a new instructor
+     * 
+     * @param faculty New instructor
+     * @return Previous instructor, or null if there was none
+     */
+    synchronized Faculty replaceFaculty(Faculty faculty) {
+        Faculty previous = this.faculty;
         this.faculty = faculty;
+        return previous;
+    }
+
+    /**
+     * Clear the instructor if it is still the given faculty
+     * 
+     * @param faculty Instructor being removed
+     */
+    synchronized void clearFaculty(Faculty faculty) {
+        if (this.faculty == faculty) {
+            this.faculty = null;
+        }
     }
 
     public List<Enrollment> getEnrollments() {
-        return new ArrayList<>(enrollments); // Return a copy to preserve encapsulation
+        return enrollmentsView; // Shared read-only view; writes copy the backing array
     }
 
     public List<CourseSchedule> getSchedules() {
-        return new ArrayList<>(schedules); // Return a copy to preserve encapsulation
+        return schedules; // Shared read-only snapshot; writes publish a new one
     }
 
     /**
@@ -71,15 +147,19 @@ public class CourseOffering {
      * @param schedule Schedule to add
      * @return true if addition successful, false otherwise
      */
-    public boolean addSchedule(CourseSchedule schedule) {
-        // Check for time conflicts
-        for (CourseSchedule existing : schedules) {
-            if (existing.conflictsWith(schedule)) {
-                return false; // Schedule conflict
-            }
+    public synchronized boolean addSchedule(CourseSchedule schedule) {
+        if (schedule.getOffering() != null) {
+            return false; // Already belongs to an offering
+        }
+        // Check for time conflicts with an interval lookup
+        if (!timeline.add(schedule)) {
+            return false; // Schedule conflict
         }
 
-        schedules.add(schedule);
+        List<CourseSchedule> updated = new ArrayList<>(schedules);
+        updated.add(schedule);
+        schedule.setOffering(this);
+        publishSchedules(updated);
         return true;
     }
 
@@ -89,8 +169,131 @@ public class CourseOffering {
      * @param schedule Schedule to remove
      * @return true if removal successful, false otherwise
      */
-    public boolean removeSchedule(CourseSchedule schedule) {
-        return schedules.remove(schedule);
+    public synchronized boolean removeSchedule(CourseSchedule schedule) {
+        List<CourseSchedule> updated = new ArrayList<>(schedules);
+        if (!updated.remove(schedule)) {
+            return false;
+        }
+        timeline.remove(schedule);
+        schedule.setOffering(null);
+        publishSchedules(updated);
+        return true;
+    }
+
+    /**
+     * Replace every schedule of this offering in one step. Readers see either
+     * the old or the new schedules, never a mix.
+     * 
+     * @param replacement New schedules
+     * @return true if replaced, false if the new schedules overlap each other
+     *         or already belong to an offering
+     */
+    public synchronized boolean replaceSchedules(List<CourseSchedule> replacement) {
+        ScheduleIndex.Timeline check = new ScheduleIndex.Timeline();
+        for (CourseSchedule schedule : replacement) {
+            if (schedule.getOffering() != null || !check.add(schedule)) {
+                return false; // Already used or schedule conflict
+            }
+        }
+
+        for (CourseSchedule schedule : schedules) {
+            timeline.remove(schedule);
+            schedule.setOffering(null);
+        }
+        for (CourseSchedule schedule : replacement) {
+            timeline.add(schedule);
+            schedule.setOffering(this);
+        }
+        publishSchedules(new ArrayList<>(replacement));
+        return true;
+    }
+
+    /**
+     * Replace every schedule of this offering, provided no seat is taken. No
+     * seat can be taken between the check and the replacement.
+     * 
+     * @param replacement New schedules
+     * @return true if replaced, false if a seat is taken or
+     *         {@link #replaceSchedules(List)} refused the schedules
+     */
+    public synchronized boolean replaceSchedulesIfEmpty(List<CourseSchedule> replacement) {
+        seatGate.writeLock().lock();
+        try {
+            if (seatsTaken.get() > 0) {
+                return false; // Students registered
+            }
+            return replaceSchedules(replacement);
+        } finally {
+            seatGate.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reindex a schedule after its day or times changed. Called by the
+     * {@link CourseSchedule} setters.
+     * 
+     * @param schedule Schedule that moved
+     * @return true if reindexed, false if the new time overlaps another meeting
+     */
+    synchronized boolean scheduleRetimed(CourseSchedule schedule) {
+        timeline.remove(schedule);
+        if (!timeline.add(schedule)) {
+            return false; // Schedule conflict; the caller moves it back
+        }
+        schedulesChanged();
+        return true;
+    }
+
+    /**
+     * Get a counter that changes whenever a meeting time of this offering
+     * changes, so caches built from the schedules can tell they are stale
+     * 
+     * @return Schedule version
+     */
+    long getScheduleVersion() {
+        return scheduleVersion;
+    }
+
+    private void publishSchedules(List<CourseSchedule> updated) {
+        schedules = Collections.unmodifiableList(updated);
+        schedulesChanged();
+    }
+
+    private void schedulesChanged() {
+        weekBitmap = null;
+        scheduleVersion++; // Only written under the offering lock
+    }
+
+    /**
+     * Get the week slots taken by this offering's schedules. The bitmap is
+     * shared, so callers must not modify it.
+     * 
+     * @return Bitmap of the schedules
+     */
+    synchronized WeekBitmap getWeekBitmap() {
+        if (weekBitmap == null) {
+            weekBitmap = WeekBitmap.of(schedules);
+        }
+        return weekBitmap;
+    }
+
+    /**
+     * Register a listener notified whenever a seat is taken or freed
+     * 
+     * @param listener Listener to add
+     */
+    public void addSeatListener(SeatListener listener) {
+        seatListeners.add(listener);
+    }
+
+    /**
+     * Remove a seat listener
+     * 
+     * @param listener Listener to remove
+     * @return true if the listener was registered, false otherwise
+     */
+    public boolean removeSeatListener(SeatListener listener) {
+        return seatListeners.remove(listener);
     }
 
     /**
@@ -100,27 +303,246 @@ public class CourseOffering {
      * @return true if addition successful, false otherwise
      */
     public boolean addEnrollment(Enrollment enrollment) {
-        if (getEnrolledStudents() >= course.getMaxCapacity()) {
+        if (enrollment.getStatusCode() != StatusCodes.ENROLLED) {
+            // Withdrawn and completed enrollments do not occupy a seat
+            enrollments.add(enrollment);
+            enrollment.attach();
+            return true;
+        }
+
+        if (!reserveSeat()) {
             return false; // Course is full
         }
+        confirmReservation(enrollment);
+        return true;
+    }
 
+    /**
+     * Reserve a seat without taking a lock. The reservation must later be either
+     * confirmed or released.
+     * 
+     * @return true if a seat was reserved, false if the course is full
+     */
+    public boolean reserveSeat() {
+        if (!takeSeat()) {
+            return false;
+        }
+        reservedSeats.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Turn a reserved seat into an enrollment
+     * 
+     * @param enrollment Enrollment in "Enrolled" status occupying the seat
+     */
+    public void confirmReservation(Enrollment enrollment) {
+        if (enrollment.getStatusCode() != StatusCodes.ENROLLED) {
+            throw new IllegalArgumentException("Only an 'Enrolled' enrollment can occupy a reserved seat");
+        }
+        if (reservedSeats.getAndDecrement() <= 0) {
+            reservedSeats.incrementAndGet();
+            throw new IllegalStateException("No seat is reserved in offering " + offeringId);
+        }
         enrollments.add(enrollment);
+        enrollment.attach();
+    }
+
+    /**
+     * Give back a reserved seat that will not be confirmed
+     */
+    public void releaseReservation() {
+        if (reservedSeats.getAndDecrement() <= 0) {
+            reservedSeats.incrementAndGet();
+            throw new IllegalStateException("No seat is reserved in offering " + offeringId);
+        }
+        seatsTaken.decrementAndGet();
+        seatFreed();
+    }
+
+    /**
+     * Put a student on the waitlist for this offering
+     * 
+     * @param student Student to waitlist
+     * @return true if the student was added, false if already waitlisted or enrolled
+     */
+    public boolean joinWaitlist(Student student) {
+        if (getEnrollmentForStudent(student) != null) {
+            return false; // Already enrolled
+        }
+        if (!waitlistedIds.add(student.getStudentId())) {
+            return false; // Already waitlisted
+        }
+        waitlist.addLast(student);
+
+        if (getAvailableSeats() > 0) {
+            WaitlistPromoter.getInstance().schedule(this); // A seat opened up meanwhile
+        }
+        return true;
+    }
+
+    /**
+     * Take a student off the waitlist
+     * 
+     * @param student Student to remove
+     * @return true if the student was waitlisted, false otherwise
+     */
+    public boolean leaveWaitlist(Student student) {
+        if (!waitlistedIds.remove(student.getStudentId())) {
+            return false;
+        }
+        waitlist.removeIf(waiting -> waiting.getStudentId().equals(student.getStudentId()));
         return true;
     }
 
+    public int getWaitlistSize() {
+        return waitlistedIds.size();
+    }
+
+    public List<Student> getWaitlist() {
+        return new ArrayList<>(waitlist); // Return a copy to preserve encapsulation
+    }
+
+    /**
+     * Remove the student at the head of the waitlist
+     * 
+     * @return Next student, or null if the waitlist is empty
+     */
+    Student pollWaitlist() {
+        Student student;
+        while ((student = waitlist.pollFirst()) != null) {
+            if (waitlistedIds.remove(student.getStudentId())) {
+                return student;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return a student to the head of the waitlist after a failed promotion
+     * 
+     * @param student Student to requeue
+     */
+    void requeueWaitlist(Student student) {
+        if (waitlistedIds.add(student.getStudentId())) {
+            waitlist.addFirst(student);
+        }
+    }
+
+    boolean startPromotion() {
+        return promoting.compareAndSet(false, true);
+    }
+
+    void finishPromotion() {
+        promoting.set(false);
+    }
+
     /**
      * Get the number of students currently enrolled
      * 
      * @return Number of enrolled students
      */
     public int getEnrolledStudents() {
-        int count = 0;
+        if (CHECK_SEAT_INVARIANT) {
+            verifySeatCount();
+        }
+        return seatsTaken.get() - reservedSeats.get();
+    }
+
+    /**
+     * Update the seat counter before an enrollment in this offering changes
+     * status
+     *
+     * @param oldStatus Current status code
+     * @param newStatus Status code about to be applied
+     * @throws IllegalArgumentException if re-enrolling while the course is full
+     */
+    void onEnrollmentStatusChanged(byte oldStatus, byte newStatus) {
+        if (newStatus == StatusCodes.ENROLLED && !takeSeat()) {
+            throw new IllegalArgumentException("Course is full");
+        }
+        if (oldStatus == StatusCodes.ENROLLED) {
+            seatsTaken.decrementAndGet();
+            seatFreed();
+        }
+        if (CHECK_SEAT_INVARIANT) {
+            // The enrollment still shows its old status, so count the pending change
+            verifySeatCount((newStatus == StatusCodes.ENROLLED ? 1 : 0) - (oldStatus == StatusCodes.ENROLLED ? 1 : 0));
+        }
+    }
+
+    /**
+     * Notify the seat listeners and hand the freed seat to the waitlist
+     * asynchronously
+     */
+    private void seatFreed() {
+        fireSeatsChanged(-1);
+        if (!waitlist.isEmpty()) {
+            WaitlistPromoter.getInstance().schedule(this);
+        }
+    }
+
+    private void fireSeatsChanged(int delta) {
+        for (SeatListener listener : seatListeners) {
+            listener.seatsChanged(this, delta);
+        }
+    }
+
+    /**
+     * Recount enrolled students from the enrollment list and compare the result
+     * with the live counter
+     *
+     * @throws IllegalStateException if the counter has drifted
+     */
+    public void verifySeatCount() {
+        verifySeatCount(0);
+    }
+
+    private void verifySeatCount(int pending) {
+        int count = pending;
         for (Enrollment enrollment : enrollments) {
-            if (enrollment.getStatus().equals("Enrolled")) {
+            if (enrollment.getStatusCode() == StatusCodes.ENROLLED) {
                 count++;
             }
         }
-        return count;
+        int counted = seatsTaken.get() - reservedSeats.get();
+        if (count != counted) {
+            throw new IllegalStateException("Seat counter for offering " + offeringId + " is " + counted +
+                    " but " + count + " students are enrolled");
+        }
+    }
+
+    /**
+     * Take a seat with a compare-and-set loop so the count never exceeds the
+     * course capacity. Seat takers share the seat gate, so they only wait for
+     * {@link #replaceSchedulesIfEmpty(List)}.
+     */
+    private boolean takeSeat() {
+        seatGate.readLock().lock();
+        try {
+            while (true) {
+                int taken = seatsTaken.get();
+                if (taken >= course.getMaxCapacity()) {
+                    return false;
+                }
+                if (seatsTaken.compareAndSet(taken, taken + 1)) {
+                    break;
+                }
+            }
+        } finally {
+            seatGate.readLock().unlock();
+        }
+        fireSeatsChanged(1);
+        return true;
+    }
+
+    /**
+     * Get the number of seats taken, counting reservations not yet confirmed
+     * 
+     * @return Number of taken seats
+     */
+    int getSeatsTaken() {
+        return seatsTaken.get();
     }
 
     /**
@@ -129,7 +551,74 @@ public class CourseOffering {
      * @return Number of available seats
      */
     public int getAvailableSeats() {
-        return course.getMaxCapacity() - getEnrolledStudents();
+        return course.getMaxCapacity() - seatsTaken.get();
+    }
+
+    /**
+     * Get the students currently enrolled as a read-only live view. Nothing is
+     * copied: each iteration walks a snapshot of the enrollment list and skips
+     * enrollments that are not "Enrolled". The size is counted the same way, so
+     * it always agrees with what an iteration returns.
+     * 
+     * @return Unmodifiable view of the enrolled students
+     */
+    public Collection<Student> getRoster() {
+        return roster;
+    }
+
+    /**
+     * Roster backed by the copy-on-write enrollment list
+     */
+    private class RosterView extends AbstractCollection<Student> {
+        @Override
+        public Iterator<Student> iterator() {
+            Iterator<Enrollment> snapshot = enrollments.iterator();
+            return new Iterator<Student>() {
+                private Student next = advance();
+
+                private Student advance() {
+                    while (snapshot.hasNext()) {
+                        Enrollment enrollment = snapshot.next();
+                        if (enrollment.getStatusCode() == StatusCodes.ENROLLED) {
+                            return enrollment.getStudent();
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Student next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Student student = next;
+                    next = advance();
+                    return student;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            // Count like the iterator; the seat counter includes transitions in flight
+            int count = 0;
+            for (Enrollment enrollment : enrollments) {
+                if (enrollment.getStatusCode() == StatusCodes.ENROLLED) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
     }
 
     /**
@@ -141,7 +630,7 @@ public class CourseOffering {
     public Enrollment getEnrollmentForStudent(Student student) {
         for (Enrollment enrollment : enrollments) {
             if (enrollment.getStudent().getStudentId().equals(student.getStudentId()) &&
-                    enrollment.getStatus().equals("Enrolled")) {
+                    enrollment.getStatusCode() == StatusCodes.ENROLLED) {
                 return enrollment;
             }
         }
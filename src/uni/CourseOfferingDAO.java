@@ -0,0 +1,69 @@
+package uni;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Data access object for course offerings
+ *
+ * Table: course_offerings(offering_id, course_id, semester, year, faculty_id).
+ * The assigned faculty is stored by ID only; callers attach the Faculty object.
+ */
+public class CourseOfferingDAO extends BaseDAO {
+    private static final String FIND_BY_COURSE = "SELECT offering_id, semester, year FROM course_offerings " +
+            "WHERE course_id = ? ORDER BY year, semester";
+    private static final String COUNT_ENROLLED = "SELECT COUNT(*) FROM enrollments " +
+            "WHERE offering_id = ? AND status = 'Enrolled'";
+    private static final String UPSERT = "INSERT OR REPLACE INTO course_offerings " +
+            "(offering_id, course_id, semester, year, faculty_id) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Constructor for CourseOfferingDAO class
+     *
+     * @param databaseManager Connection pool to borrow from
+     */
+    public CourseOfferingDAO(DatabaseManager databaseManager) {
+        super(databaseManager);
+    }
+
+    /**
+     * Load every offering of a course
+     *
+     * @param course Course to load offerings for
+     * @return List of offerings ordered by term
+     * @throws SQLException if the query fails
+     */
+    public List<CourseOffering> findByCourse(Course course) throws SQLException {
+        return queryList(FIND_BY_COURSE, ps -> ps.setString(1, course.getCourseId()),
+                rs -> new CourseOffering(rs.getInt("offering_id"), course, rs.getString("semester"),
+                        rs.getInt("year")));
+    }
+
+    /**
+     * Count the students currently enrolled in an offering
+     *
+     * @param offeringId Offering ID
+     * @return Number of enrolled students
+     * @throws SQLException if the query fails
+     */
+    public int countEnrolled(int offeringId) throws SQLException {
+        Integer count = queryOne(COUNT_ENROLLED, ps -> ps.setInt(1, offeringId), rs -> rs.getInt(1));
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Insert or replace a course offering
+     *
+     * @param offering Offering to save
+     * @throws SQLException if the update fails
+     */
+    public void save(CourseOffering offering) throws SQLException {
+        update(UPSERT, ps -> {
+            ps.setInt(1, offering.getOfferingId());
+            ps.setString(2, offering.getCourse().getCourseId());
+            ps.setString(3, offering.getSemester());
+            ps.setInt(4, offering.getYear());
+            ps.setString(5, offering.getFaculty() != null ? offering.getFaculty().getFacultyId() : null);
+        });
+    }
+}
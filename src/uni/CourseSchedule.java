@@ -1,6 +1,9 @@
 package uni;
 
+import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.Locale;
 
 /**
  * CourseSchedule class for course meeting times
@@ -11,6 +14,15 @@ public class CourseSchedule {
     private LocalTime startTime;
     private LocalTime endTime;
     private String location;
+    private int day; // 0 = Monday, UNPLACED if the day name is not recognized
+    private int startMinute; // Minute of the week
+    private int endMinute; // Minute of the week
+    private volatile CourseOffering offering; // Offering this schedule belongs to, if any
+
+    static final int UNPLACED = -1;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final String[][] ABBREVIATIONS = { { "Mo" }, { "Tu", "Tues" }, { "We", "Weds" },
+            { "Th", "Thur", "Thurs" }, { "Fr" }, { "Sa" }, { "Su" } }; // Beyond the three-letter forms, by day
 
     /**
      * Constructor for CourseSchedule class
@@ -23,6 +35,7 @@ public class CourseSchedule {
      */
     public CourseSchedule(int scheduleId, String dayOfWeek, LocalTime startTime, LocalTime endTime, String location) {
         this.scheduleId = scheduleId;
+        this.day = parseDay(dayOfWeek);
         this.dayOfWeek = dayOfWeek;
         this.startTime = startTime;
         this.endTime = endTime;
@@ -32,6 +45,7 @@ public class CourseSchedule {
         if (endTime.isBefore(startTime) || endTime.equals(startTime)) {
             throw new IllegalArgumentException("End time must be after start time");
         }
+        encodeTimes();
     }
 
     // Getters and setters
@@ -44,7 +58,7 @@ public class CourseSchedule {
     }
 
     public void setDayOfWeek(String dayOfWeek) {
-        this.dayOfWeek = dayOfWeek;
+        retime(parseDay(dayOfWeek), dayOfWeek, startTime, endTime);
     }
 
     public LocalTime getStartTime() {
@@ -55,7 +69,7 @@ public class CourseSchedule {
         if (endTime != null && (endTime.isBefore(startTime) || endTime.equals(startTime))) {
             throw new IllegalArgumentException("End time must be after start time");
         }
-        this.startTime = startTime;
+        retime(day, dayOfWeek, startTime, endTime);
     }
 
     public LocalTime getEndTime() {
@@ -66,7 +80,34 @@ public class CourseSchedule {
         if (startTime != null && (endTime.isBefore(startTime) || endTime.equals(startTime))) {
             throw new IllegalArgumentException("End time must be after start time");
         }
-        this.endTime = endTime;
+        retime(day, dayOfWeek, startTime, endTime);
+    }
+
+    /**
+     * Check if the day is recognized, so the meeting has minutes of the week
+     * 
+     * @return true if placed on the week, false otherwise
+     */
+    boolean isPlaced() {
+        return day != UNPLACED;
+    }
+
+    /**
+     * Get the start as minutes since Monday 00:00
+     * 
+     * @return Start minute of the week, -1 if the day is not recognized
+     */
+    public int getStartMinuteOfWeek() {
+        return startMinute;
+    }
+
+    /**
+     * Get the end as minutes since Monday 00:00
+     * 
+     * @return End minute of the week, -1 if the day is not recognized
+     */
+    public int getEndMinuteOfWeek() {
+        return endMinute;
     }
 
     public String getLocation() {
@@ -77,6 +118,14 @@ public class CourseSchedule {
         this.location = location;
     }
 
+    CourseOffering getOffering() {
+        return offering;
+    }
+
+    void setOffering(CourseOffering offering) {
+        this.offering = offering;
+    }
+
     /**
      * Check if this schedule conflicts with another schedule
      * 
@@ -84,15 +133,85 @@ public class CourseSchedule {
      * @return true if conflict exists, false otherwise
      */
     public boolean conflictsWith(CourseSchedule other) {
-        // Different days, no conflict
+        if (isPlaced() && other.isPlaced()) {
+            // Minutes of the week already separate the days
+            return startMinute <= other.endMinute && other.startMinute <= endMinute;
+        }
+
+        // Days that are not recognized, such as "MWF" or "TBA", only clash with the same text
         if (!dayOfWeek.equals(other.dayOfWeek)) {
             return false;
         }
-
-        // Same day, check for time overlap
         return !(endTime.isBefore(other.startTime) || startTime.isAfter(other.endTime));
     }
 
+    /**
+     * Parse a day name such as "Monday", "Mon" or "Thurs", ignoring case
+     * 
+     * @param dayOfWeek Day name
+     * @return Day index, 0 for Monday through 6 for Sunday, or UNPLACED if the
+     *         name is not a single recognized day
+     * @throws IllegalArgumentException if the day is null
+     */
+    static int parseDay(String dayOfWeek) {
+        if (dayOfWeek == null) {
+            throw new IllegalArgumentException("Day of week cannot be empty");
+        }
+        String name = dayOfWeek.trim();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.getDisplayName(TextStyle.FULL, Locale.ENGLISH).equalsIgnoreCase(name)
+                    || day.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).equalsIgnoreCase(name)) {
+                return day.ordinal();
+            }
+            for (String abbreviation : ABBREVIATIONS[day.ordinal()]) {
+                if (abbreviation.equalsIgnoreCase(name)) {
+                    return day.ordinal();
+                }
+            }
+        }
+        return UNPLACED; // Kept as given, like any other text
+    }
+
+    /**
+     * Move this schedule and let its offering reindex it. A move that would
+     * overlap another meeting of the same offering is undone.
+     *
+     * @throws IllegalArgumentException if the new time conflicts
+     */
+    private void retime(int day, String dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        int oldDay = this.day;
+        String oldDayOfWeek = this.dayOfWeek;
+        LocalTime oldStartTime = this.startTime;
+        LocalTime oldEndTime = this.endTime;
+
+        this.day = day;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        encodeTimes();
+
+        CourseOffering owner = offering;
+        if (owner != null && !owner.scheduleRetimed(this)) {
+            this.day = oldDay;
+            this.dayOfWeek = oldDayOfWeek;
+            this.startTime = oldStartTime;
+            this.endTime = oldEndTime;
+            encodeTimes();
+            owner.scheduleRetimed(this);
+            throw new IllegalArgumentException("Schedule conflicts with another meeting of the offering");
+        }
+    }
+
+    private void encodeTimes() {
+        if (day == UNPLACED) {
+            startMinute = -1;
+            endMinute = -1;
+        } else if (startTime != null && endTime != null) {
+            startMinute = day * MINUTES_PER_DAY + startTime.getHour() * 60 + startTime.getMinute();
+            endMinute = day * MINUTES_PER_DAY + endTime.getHour() * 60 + endTime.getMinute();
+        }
+    }
+
     @Override
     public String toString() {
         return "CourseSchedule{" +
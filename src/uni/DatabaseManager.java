@@ -3,14 +3,70 @@ package uni;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Database connection manager for the University Management System
+ *
+ * Keeps a bounded pool of read-only WAL connections plus a single writer
+ * connection. Every borrowed connection must be handed back with
+ * {@link #releaseConnection(Connection)}. The writer is re-entrant: a thread
+ * that already holds it gets the same connection back, and only the
+ * outermost release ends the borrow.
  */
 public class DatabaseManager {
     private static final String DB_URL = "jdbc:sqlite:university.db";
+    private static final int MAX_READERS = 8;
+    private static final long BORROW_TIMEOUT_MS = 5000;
+    private static final long LEAK_THRESHOLD_MS = 30000;
+    private static final int BUSY_TIMEOUT_MS = 5000;
+    private static final int STATEMENT_CACHE_SIZE = 64;
     private static DatabaseManager instance;
-    private Connection connection;
+
+    private final BlockingQueue<Connection> idleReaders = new ArrayBlockingQueue<>(MAX_READERS);
+    private final AtomicInteger openReaders = new AtomicInteger();
+    private final Semaphore writerPermit = new Semaphore(1, true);
+    private final Map<Connection, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService leakDetector;
+    private volatile Connection writer;
+    private volatile Thread writerOwner; // Thread holding the writer permit
+    private int writerHolds; // Nested borrows by the owner; only touched by the owner
+    private Connection legacyConnection; // Unpooled connection behind getConnection()
+    private volatile boolean closed;
+    private volatile boolean walEnabled; // Set once the database file is known to be in WAL mode
+
+    // Borrow/return timing statistics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong returnCount = new AtomicLong();
+    private final AtomicLong holdNanos = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+
+    /**
+     * Bookkeeping for a connection that is currently checked out
+     */
+    private static class Lease {
+        private final long borrowedAt = System.nanoTime();
+        private final String borrower = Thread.currentThread().getName();
+        private final boolean writer;
+        private boolean reported;
+
+        private Lease(boolean writer) {
+            this.writer = writer;
+        }
+    }
 
     private DatabaseManager() {
         try {
@@ -20,11 +76,19 @@ public class DatabaseManager {
             System.err.println("SQLite JDBC Driver not found: " + e.getMessage());
             System.exit(1);
         }
+
+        leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-leak-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leakDetector.scheduleAtFixedRate(this::detectLeaks, LEAK_THRESHOLD_MS, LEAK_THRESHOLD_MS,
+                TimeUnit.MILLISECONDS);
     }
 
     /**
      * Get the singleton instance of DatabaseManager
-     * 
+     *
      * @return DatabaseManager instance
      */
     public static synchronized DatabaseManager getInstance() {
@@ -35,51 +99,367 @@ public class DatabaseManager {
     }
 
     /**
-     * Get a connection to the database
-     * 
+     * Get a connection to the database. The connection is shared, is not
+     * pooled and must not be released; auto-commit is disabled, so callers
+     * commit their own changes. It stays open until {@link #closeConnection()}.
+     *
      * @return Connection object
      * @throws SQLException if connection cannot be established
+     * @deprecated Borrow with {@link #getWriteConnection()} or
+     *             {@link #getReadConnection()} and hand back with
+     *             {@link #releaseConnection(Connection)}
      */
+    @Deprecated
     public synchronized Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL);
-            connection.setAutoCommit(false);
+        ensureOpen();
+        if (legacyConnection == null || legacyConnection.isClosed()) {
+            Connection conn = DriverManager.getConnection(DB_URL);
+            try (Statement statement = conn.createStatement()) {
+                statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS); // Shares the file with the writer
+            }
+            conn.setAutoCommit(false);
+            legacyConnection = conn;
         }
-        return connection;
+        return legacyConnection;
     }
 
     /**
-     * Close the database connection
+     * Borrow the single writer connection. Auto-commit is disabled, so callers
+     * must commit or roll back before releasing it.
+     *
+     * @return Writer connection
+     * @throws SQLException if the writer is unavailable or cannot be opened
      */
-    public synchronized void closeConnection() {
-        if (connection != null) {
+    public Connection getWriteConnection() throws SQLException {
+        ensureOpen();
+        if (writerOwner == Thread.currentThread()) {
+            writerHolds++; // Nested borrow by the thread already holding the writer
+            return writer;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!writerPermit.tryAcquire(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for the writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection", e);
+        }
+
+        try {
+            Connection conn = openWriterIfNeeded();
+            recordBorrow(conn, true, start);
+            writerHolds = 1;
+            writerOwner = Thread.currentThread();
+            return conn;
+        } catch (SQLException e) {
+            writerPermit.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrow a read-only connection from the pool. Readers never block the
+     * writer because the database runs in WAL mode.
+     *
+     * @return Read-only connection
+     * @throws SQLException if no reader becomes available in time
+     */
+    public Connection getReadConnection() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        Connection conn = idleReaders.poll();
+
+        // Grow the pool lazily up to its bound
+        while (conn == null) {
+            int open = openReaders.get();
+            if (open < MAX_READERS) {
+                if (openReaders.compareAndSet(open, open + 1)) {
+                    try {
+                        conn = openReader();
+                    } catch (SQLException e) {
+                        openReaders.decrementAndGet();
+                        throw e;
+                    }
+                }
+                continue;
+            }
+
             try {
-                connection.close();
+                conn = idleReaders.poll(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a read connection", e);
+            }
+            if (conn == null) {
+                throw new SQLException("Timed out waiting for a read connection");
+            }
+        }
+
+        recordBorrow(conn, false, start);
+        return conn;
+    }
+
+    /**
+     * Return a borrowed connection to the pool
+     *
+     * @param conn Connection previously obtained from this manager
+     */
+    public void releaseConnection(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+
+        Lease lease = leases.get(conn);
+        if (lease == null) {
+            System.err.println("Ignoring release of a connection that is not borrowed");
+            return;
+        }
+        if (lease.writer && writerOwner == Thread.currentThread() && writerHolds > 1) {
+            writerHolds--;
+            return; // Still held by an outer borrow
+        }
+        leases.remove(conn);
+        returnCount.incrementAndGet();
+        holdNanos.addAndGet(System.nanoTime() - lease.borrowedAt);
+
+        if (lease.writer) {
+            try {
+                if (!conn.getAutoCommit()) {
+                    conn.rollback(); // Discard anything the caller left uncommitted
+                }
             } catch (SQLException e) {
-                System.err.println("Error closing connection: " + e.getMessage());
+                System.err.println("Error resetting writer connection: " + e.getMessage());
+            }
+            if (closed) {
+                closeQuietly(conn);
+                writer = null;
+            }
+            writerHolds = 0;
+            writerOwner = null;
+            writerPermit.release();
+            return;
+        }
+
+        if (closed || !idleReaders.offer(conn)) {
+            closeQuietly(conn);
+            openReaders.decrementAndGet();
+        }
+    }
+
+    /**
+     * Close every pooled connection. Connections still borrowed are closed when
+     * they are released. The next {@link #getInstance()} opens a fresh pool.
+     */
+    public void closeConnection() {
+        synchronized (DatabaseManager.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+        closed = true;
+        leakDetector.shutdownNow();
+        synchronized (this) {
+            if (legacyConnection != null) {
+                closeQuietly(legacyConnection);
+                legacyConnection = null;
+            }
+        }
+
+        Connection conn;
+        while ((conn = idleReaders.poll()) != null) {
+            closeQuietly(conn);
+            openReaders.decrementAndGet();
+        }
+
+        if (writerPermit.tryAcquire()) {
+            try {
+                if (writer != null) {
+                    closeQuietly(writer);
+                    writer = null;
+                }
+            } finally {
+                writerPermit.release();
             }
         }
     }
 
     /**
      * Initialize the database with schema
-     * 
-     * @param schemaFile path to SQL schema file
+     *
+     * @param schemaScript SQL schema script
      */
     public void initializeDatabase(String schemaScript) {
-        try (Connection conn = getConnection()) {
-            conn.createStatement().executeUpdate(schemaScript);
+        Connection conn = null;
+        try {
+            conn = getWriteConnection();
+            try (Statement statement = conn.createStatement()) {
+                statement.executeUpdate(schemaScript);
+            }
             conn.commit();
             System.out.println("Database initialized successfully");
         } catch (SQLException e) {
             System.err.println("Error initializing database: " + e.getMessage());
             try {
-                if (connection != null) {
-                    connection.rollback();
+                if (conn != null) {
+                    conn.rollback();
                 }
             } catch (SQLException ex) {
                 System.err.println("Error rolling back transaction: " + ex.getMessage());
             }
+        } finally {
+            releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Get the prepared statement cache for a borrowed connection
+     *
+     * @param conn Connection obtained from this manager
+     * @return Statement cache bound to the connection
+     */
+    public StatementCache getStatementCache(Connection conn) {
+        return statementCaches.computeIfAbsent(conn, c -> new StatementCache(c, STATEMENT_CACHE_SIZE));
+    }
+
+    /**
+     * Get the number of prepared statement cache hits across all connections
+     *
+     * @return Cache hits
+     */
+    public long getStatementCacheHits() {
+        long hits = 0;
+        for (StatementCache cache : statementCaches.values()) {
+            hits += cache.getHits();
+        }
+        return hits;
+    }
+
+    /**
+     * Get the number of prepared statement cache misses across all connections
+     *
+     * @return Cache misses
+     */
+    public long getStatementCacheMisses() {
+        long misses = 0;
+        for (StatementCache cache : statementCaches.values()) {
+            misses += cache.getMisses();
+        }
+        return misses;
+    }
+
+    // Pool statistics
+    public int getOpenReaderCount() {
+        return openReaders.get();
+    }
+
+    public int getBorrowedCount() {
+        return leases.size();
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected.get();
+    }
+
+    /**
+     * Get the average time callers waited to borrow a connection
+     *
+     * @return Average wait in milliseconds
+     */
+    public double getAverageBorrowWaitMillis() {
+        long count = borrowCount.get();
+        return count > 0 ? borrowWaitNanos.get() / 1e6 / count : 0.0;
+    }
+
+    /**
+     * Get the average time a connection was held before being returned
+     *
+     * @return Average hold time in milliseconds
+     */
+    public double getAverageHoldMillis() {
+        long count = returnCount.get();
+        return count > 0 ? holdNanos.get() / 1e6 / count : 0.0;
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed");
+        }
+    }
+
+    private void recordBorrow(Connection conn, boolean isWriter, long start) {
+        leases.put(conn, new Lease(isWriter));
+        borrowCount.incrementAndGet();
+        borrowWaitNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Open the writer connection. The caller must hold the writer permit.
+     */
+    private Connection openWriterIfNeeded() throws SQLException {
+        if (writer == null || writer.isClosed()) {
+            Connection conn = DriverManager.getConnection(DB_URL);
+            try (Statement statement = conn.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+            }
+            conn.setAutoCommit(false);
+            writer = conn;
+            walEnabled = true;
+        }
+        return writer;
+    }
+
+    private Connection openReader() throws SQLException {
+        if (!walEnabled) {
+            enableWal();
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty("open_mode", "1"); // SQLITE_OPEN_READONLY
+        properties.setProperty("busy_timeout", String.valueOf(BUSY_TIMEOUT_MS));
+        return DriverManager.getConnection(DB_URL, properties);
+    }
+
+    /**
+     * Create the database file and switch it to WAL mode on a short-lived
+     * connection of its own, so a reader never waits for the writer permit.
+     */
+    private synchronized void enableWal() throws SQLException {
+        if (walEnabled) {
+            return;
+        }
+        try (Connection conn = DriverManager.getConnection(DB_URL);
+                Statement statement = conn.createStatement()) {
+            statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+            statement.execute("PRAGMA journal_mode=WAL"); // Persistent; a no-op once the file is in WAL mode
+        }
+        walEnabled = true;
+    }
+
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (Lease lease : leases.values()) {
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - lease.borrowedAt);
+            if (heldMillis > LEAK_THRESHOLD_MS && !lease.reported) {
+                lease.reported = true;
+                leaksDetected.incrementAndGet();
+                System.err.println("Possible connection leak: " + (lease.writer ? "writer" : "reader") +
+                        " held by thread '" + lease.borrower + "' for " + heldMillis + " ms");
+            }
+        }
+    }
+
+    private void closeQuietly(Connection conn) {
+        StatementCache cache = statementCaches.remove(conn);
+        if (cache != null) {
+            cache.clear();
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package uni;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Department class for university departments
@@ -9,8 +11,11 @@ import java.util.List;
 public class Department {
     private String departmentId;
     private String name;
-    private List<Faculty> faculty;
-    private List<Course> offeredCourses;
+    private final CopyOnWriteArrayList<Faculty> faculty = new CopyOnWriteArrayList<>();
+    private final List<Faculty> facultyView = Collections.unmodifiableList(faculty);
+    private final CopyOnWriteArrayList<Course> offeredCourses = new CopyOnWriteArrayList<>();
+    private final List<Course> offeredCoursesView = Collections.unmodifiableList(offeredCourses);
+    private ReportViews reportViews; // Report views summarizing this department, if any; guarded by this
 
     /**
      * Constructor for Department class
@@ -21,8 +26,6 @@ public class Department {
     public Department(String departmentId, String name) {
         this.departmentId = departmentId;
         this.name = name;
-        this.faculty = new ArrayList<>();
-        this.offeredCourses = new ArrayList<>();
     }
 
     // Getters and setters
@@ -38,12 +41,20 @@ public class Department {
         this.name = name;
     }
 
+    synchronized ReportViews getReportViews() {
+        return reportViews;
+    }
+
+    synchronized void setReportViews(ReportViews reportViews) {
+        this.reportViews = reportViews;
+    }
+
     public List<Faculty> getFaculty() {
-        return new ArrayList<>(faculty); // Return a copy to preserve encapsulation
+        return facultyView; // Shared read-only view; writes copy the backing array
     }
 
     public List<Course> getOfferedCourses() {
-        return new ArrayList<>(offeredCourses); // Return a copy to preserve encapsulation
+        return offeredCoursesView; // Shared read-only view; writes copy the backing array
     }
 
     /**
@@ -52,12 +63,14 @@ public class Department {
      * @param facultyMember Faculty to add
      * @return true if addition successful, false otherwise
      */
-    public boolean addFaculty(Faculty facultyMember) {
-        if (faculty.contains(facultyMember)) {
+    public synchronized boolean addFaculty(Faculty facultyMember) {
+        if (!faculty.addIfAbsent(facultyMember)) {
             return false; // Already in department
         }
 
-        faculty.add(facultyMember);
+        if (reportViews != null) {
+            reportViews.onDepartmentChanged(this, 1, 0);
+        }
         return true;
     }
 
@@ -67,8 +80,14 @@ public class Department {
      * @param facultyMember Faculty to remove
      * @return true if removal successful, false otherwise
      */
-    public boolean removeFaculty(Faculty facultyMember) {
-        return faculty.remove(facultyMember);
+    public synchronized boolean removeFaculty(Faculty facultyMember) {
+        if (!faculty.remove(facultyMember)) {
+            return false;
+        }
+        if (reportViews != null) {
+            reportViews.onDepartmentChanged(this, -1, 0);
+        }
+        return true;
     }
 
     /**
@@ -77,12 +96,14 @@ public class Department {
      * @param course Course to add
      * @return true if addition successful, false otherwise
      */
-    public boolean addCourse(Course course) {
-        if (offeredCourses.contains(course)) {
+    public synchronized boolean addCourse(Course course) {
+        if (!offeredCourses.addIfAbsent(course)) {
             return false; // Already offered
         }
 
-        offeredCourses.add(course);
+        if (reportViews != null) {
+            reportViews.onDepartmentChanged(this, 0, 1);
+        }
         return true;
     }
 
@@ -92,8 +113,14 @@ public class Department {
      * @param course Course to remove
      * @return true if removal successful, false otherwise
      */
-    public boolean removeCourse(Course course) {
-        return offeredCourses.remove(course);
+    public synchronized boolean removeCourse(Course course) {
+        if (!offeredCourses.remove(course)) {
+            return false;
+        }
+        if (reportViews != null) {
+            reportViews.onDepartmentChanged(this, 0, -1);
+        }
+        return true;
     }
 
     /**
@@ -0,0 +1,335 @@
+package uni;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes the course offerings a student may register for
+ *
+ * Every registered offering gets a slot in a bitset. For each student the
+ * engine caches a candidate mask: offerings whose prerequisites the student
+ * has passed, of courses the student has neither passed nor is taking. The
+ * mask is rebuilt
+ * only when the student's enrollments, the prerequisite graph or the catalog
+ * change. Capacity is tracked separately in an open-offerings mask that seat
+ * and course capacity listeners keep current, so the answer for a student is
+ * one AND of the two. Offerings that clash with the student's timetable for
+ * the same term are then filtered out, as registration would refuse them.
+ * The engine listens to its offerings and their courses until it is closed.
+ */
+public class EligibilityEngine {
+    private final Object lock = new Object();
+    private final List<CourseOffering> offerings = new ArrayList<>();
+    private final Map<Integer, Integer> slotsById = new HashMap<>(); // Offering ID -> slot
+    private final Map<Integer, BitSet> slotsByCourse = new HashMap<>(); // Course ordinal -> slots
+    private final BitSet openOfferings = new BitSet();
+    private final CourseOffering.SeatListener seatListener = this::onSeatsChanged;
+    private final Course.CapacityListener capacityListener = this::onCapacityChanged;
+    private long catalogVersion;
+    private PrerequisiteGraph graph; // Graph of the catalog the offerings belong to
+
+    // Per-student candidate masks, keyed by student ID
+    private final Map<String, Candidates> cache = new ConcurrentHashMap<>();
+    private CatalogSnapshot snapshot;
+
+    // Statistics
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * Candidate mask together with the versions it was computed from
+     */
+    private static class Candidates {
+        private final long enrollmentVersion;
+        private final long graphVersion;
+        private final long catalogVersion;
+        private final BitSet slots;
+
+        private Candidates(long enrollmentVersion, long graphVersion, long catalogVersion, BitSet slots) {
+            this.enrollmentVersion = enrollmentVersion;
+            this.graphVersion = graphVersion;
+            this.catalogVersion = catalogVersion;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * Immutable copy of the catalog and of the direct prerequisites of every
+     * offered course, so candidate masks can be built without locking
+     */
+    private static class CatalogSnapshot {
+        private final long graphVersion;
+        private final long catalogVersion;
+        private final Map<Integer, BitSet> prerequisites; // Course ordinal -> prerequisite ordinals
+        private final Map<Integer, BitSet> slotsByCourse;
+        private final Map<Integer, Integer> slotsById;
+
+        private CatalogSnapshot(long graphVersion, long catalogVersion, Map<Integer, BitSet> prerequisites,
+                Map<Integer, BitSet> slotsByCourse, Map<Integer, Integer> slotsById) {
+            this.graphVersion = graphVersion;
+            this.catalogVersion = catalogVersion;
+            this.prerequisites = prerequisites;
+            this.slotsByCourse = slotsByCourse;
+            this.slotsById = slotsById;
+        }
+    }
+
+    /**
+     * Constructor for EligibilityEngine class
+     * 
+     * @param offerings Offerings students can register for
+     */
+    public EligibilityEngine(Collection<CourseOffering> offerings) {
+        for (CourseOffering offering : offerings) {
+            addOffering(offering);
+        }
+    }
+
+    /**
+     * Make an offering available for registration
+     * 
+     * @param offering Offering to add
+     * @return true if added, false if an offering with the same ID is already present
+     */
+    public boolean addOffering(CourseOffering offering) {
+        synchronized (lock) {
+            if (slotsById.containsKey(offering.getOfferingId())) {
+                return false; // Already registered
+            }
+            PrerequisiteGraph courseGraph = offering.getCourse().getPrerequisiteGraph();
+            if (graph != null && graph != courseGraph) {
+                throw new IllegalArgumentException("Offering belongs to a different catalog");
+            }
+            graph = courseGraph;
+            int slot = offerings.size();
+            offerings.add(offering);
+            slotsById.put(offering.getOfferingId(), slot);
+            Course course = offering.getCourse();
+            if (!slotsByCourse.containsKey(course.getOrdinal())) {
+                course.addCapacityListener(capacityListener); // First offering of the course
+            }
+            slotsByCourse.computeIfAbsent(course.getOrdinal(), k -> new BitSet()).set(slot);
+            openOfferings.set(slot, offering.getAvailableSeats() > 0);
+            catalogVersion++;
+        }
+        offering.addSeatListener(seatListener);
+        return true;
+    }
+
+    /**
+     * Stop listening to the offerings and their courses, so a discarded engine
+     * can be collected. The engine answers no further queries.
+     */
+    public void close() {
+        List<CourseOffering> registered;
+        synchronized (lock) {
+            registered = new ArrayList<>(offerings);
+            offerings.clear();
+            slotsById.clear();
+            slotsByCourse.clear();
+            openOfferings.clear();
+            catalogVersion++;
+        }
+        Set<Course> courses = new HashSet<>();
+        for (CourseOffering offering : registered) {
+            offering.removeSeatListener(seatListener);
+            if (courses.add(offering.getCourse())) {
+                offering.getCourse().removeCapacityListener(capacityListener);
+            }
+        }
+        cache.clear();
+    }
+
+    /**
+     * Get the offerings a student can register for right now
+     * 
+     * @param student Student to check
+     * @return List of offerings with free seats whose prerequisites are met and
+     *         that do not clash with the student's timetable
+     */
+    public List<CourseOffering> getAvailableOfferings(Student student) {
+        BitSet eligible = candidatesFor(student, currentSnapshot());
+        List<CourseOffering> available;
+        synchronized (lock) {
+            eligible.and(openOfferings);
+            available = toOfferings(eligible);
+        }
+        // Outside the lock: registration holds the student's lock while it takes a seat
+        available.removeIf(student::hasScheduleConflict);
+        return available;
+    }
+
+    /**
+     * Get the offerings a student could register for if a seat were free, so
+     * the student can join their waitlists
+     * 
+     * @param student Student to check
+     * @return List of full offerings whose prerequisites are met and that do
+     *         not clash with the student's timetable
+     */
+    public List<CourseOffering> getFullOfferings(Student student) {
+        BitSet eligible = candidatesFor(student, currentSnapshot());
+        List<CourseOffering> full;
+        synchronized (lock) {
+            eligible.andNot(openOfferings);
+            full = toOfferings(eligible);
+        }
+        full.removeIf(student::hasScheduleConflict);
+        return full;
+    }
+
+    /**
+     * Get the offerings each of several students can register for. The
+     * catalog snapshot and the open offerings are read once for the batch.
+     * 
+     * @param students Students to check
+     * @return Each student mapped to their available offerings, in input order
+     */
+    public Map<Student, List<CourseOffering>> getAvailableOfferings(Collection<Student> students) {
+        CatalogSnapshot catalog = currentSnapshot();
+        Map<Student, BitSet> candidates = new ConcurrentHashMap<>();
+        students.parallelStream().forEach(student -> candidates.put(student, candidatesFor(student, catalog)));
+
+        Map<Student, List<CourseOffering>> result = new LinkedHashMap<>();
+        synchronized (lock) {
+            for (Student student : students) {
+                BitSet eligible = candidates.get(student);
+                eligible.and(openOfferings);
+                result.put(student, toOfferings(eligible));
+            }
+        }
+        result.forEach((student, available) -> available.removeIf(student::hasScheduleConflict));
+        return result;
+    }
+
+    /**
+     * Drop a student's cached candidates, e.g. when the student leaves
+     * 
+     * @param student Student to forget
+     */
+    public void invalidate(Student student) {
+        cache.remove(student.getStudentId());
+    }
+
+    // Statistics
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    private void onSeatsChanged(CourseOffering offering, int delta) {
+        synchronized (lock) {
+            Integer slot = slotsById.get(offering.getOfferingId());
+            if (slot != null) {
+                openOfferings.set(slot, offering.getAvailableSeats() > 0);
+            }
+        }
+    }
+
+    private void onCapacityChanged(Course course) {
+        synchronized (lock) {
+            BitSet slots = slotsByCourse.get(course.getOrdinal());
+            if (slots == null) {
+                return; // No offering of this course is registered
+            }
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                openOfferings.set(slot, offerings.get(slot).getAvailableSeats() > 0);
+            }
+        }
+    }
+
+    /**
+     * Get the candidate mask of a student from the cache, rebuilding it if the
+     * student, the graph or the catalog changed since it was computed
+     * 
+     * @return A copy the caller may modify
+     */
+    private BitSet candidatesFor(Student student, CatalogSnapshot catalog) {
+        // Read the version first so a change during the rebuild makes the entry stale
+        long enrollmentVersion = student.getEnrollmentVersion();
+        Candidates cached = cache.get(student.getStudentId());
+        if (cached != null && cached.enrollmentVersion == enrollmentVersion
+                && cached.graphVersion == catalog.graphVersion && cached.catalogVersion == catalog.catalogVersion) {
+            cacheHits.incrementAndGet();
+            return (BitSet) cached.slots.clone();
+        }
+        cacheMisses.incrementAndGet();
+
+        BitSet passed = student.getPassedCourses();
+        BitSet slots = new BitSet();
+        for (Map.Entry<Integer, BitSet> course : catalog.prerequisites.entrySet()) {
+            BitSet missing = (BitSet) course.getValue().clone();
+            missing.andNot(passed);
+            if (missing.isEmpty()) {
+                slots.or(catalog.slotsByCourse.get(course.getKey()));
+            }
+        }
+
+        // Exclude every offering of a course the student has passed or is taking
+        for (int course = passed.nextSetBit(0); course >= 0; course = passed.nextSetBit(course + 1)) {
+            clearCourse(slots, catalog, course);
+        }
+        for (Enrollment enrollment : student.getEnrollments()) {
+            byte status = enrollment.getStatusCode();
+            if (status == StatusCodes.ENROLLED) {
+                clearCourse(slots, catalog, enrollment.getCourseOffering().getCourse().getOrdinal());
+            } else if (status != StatusCodes.WITHDRAWN) {
+                // A failed course may be retaken, but not in the same offering
+                Integer slot = catalog.slotsById.get(enrollment.getCourseOffering().getOfferingId());
+                if (slot != null) {
+                    slots.clear(slot);
+                }
+            }
+        }
+
+        cache.put(student.getStudentId(),
+                new Candidates(enrollmentVersion, catalog.graphVersion, catalog.catalogVersion, slots));
+        return (BitSet) slots.clone();
+    }
+
+    private static void clearCourse(BitSet slots, CatalogSnapshot catalog, int course) {
+        BitSet courseSlots = catalog.slotsByCourse.get(course);
+        if (courseSlots != null) {
+            slots.andNot(courseSlots);
+        }
+    }
+
+    private CatalogSnapshot currentSnapshot() {
+        synchronized (lock) {
+            long graphVersion = graph != null ? graph.getVersion() : 0;
+            if (snapshot != null && snapshot.graphVersion == graphVersion
+                    && snapshot.catalogVersion == catalogVersion) {
+                return snapshot;
+            }
+            Map<Integer, BitSet> prerequisites = new HashMap<>();
+            Map<Integer, BitSet> courseSlots = new HashMap<>();
+            for (Map.Entry<Integer, BitSet> course : slotsByCourse.entrySet()) {
+                prerequisites.put(course.getKey(), graph.getDirectPrerequisites(course.getKey()));
+                courseSlots.put(course.getKey(), (BitSet) course.getValue().clone());
+            }
+            snapshot = new CatalogSnapshot(graphVersion, catalogVersion, prerequisites, courseSlots,
+                    new HashMap<>(slotsById));
+            return snapshot;
+        }
+    }
+
+    private List<CourseOffering> toOfferings(BitSet slots) {
+        List<CourseOffering> result = new ArrayList<>(slots.cardinality());
+        for (int i = slots.nextSetBit(0); i >= 0; i = slots.nextSetBit(i + 1)) {
+            result.add(offerings.get(i));
+        }
+        return result;
+    }
+}
@@ -10,8 +10,13 @@ public class Enrollment {
     private Student student;
     private CourseOffering courseOffering;
     private LocalDate enrollmentDate;
-    private String grade;
-    private String status; // "Enrolled", "Withdrawn", "Completed"
+    private volatile String grade;
+    private volatile byte gradeCode = GradeCodes.UNKNOWN; // Encoded grade
+    private volatile byte status = StatusCodes.UNKNOWN; // Encoded "Enrolled", "Withdrawn", "Completed"
+    private volatile boolean attached; // Counted by the course offering's seat counter
+    private volatile boolean tracked; // In the student's enrollment list
+    private int gpaCredits; // Credit hours this enrollment adds to the student's GPA
+    private int gpaPointTenths; // Grade points times credit hours, in tenths
 
     /**
      * Constructor for Enrollment class
@@ -29,7 +34,7 @@ public class Enrollment {
         this.student = student;
         this.courseOffering = courseOffering;
         this.enrollmentDate = enrollmentDate;
-        this.grade = grade;
+        assignGrade(grade);
         setStatus(status);
     }
 
@@ -54,24 +59,37 @@ public class Enrollment {
         return grade;
     }
 
-    public void setGrade(String grade) {
-        this.grade = grade;
+    public synchronized void setGrade(String grade) {
+        boolean wasPassed = isPassed();
+        assignGrade(grade);
         // If grade is set, update status to Completed
         if (grade != null && !grade.isEmpty()) {
-            this.status = "Completed";
+            changeStatus(StatusCodes.COMPLETED);
         }
+        notifyStudent(wasPassed);
+    }
+
+    byte getGradeCode() {
+        return gradeCode;
     }
 
     public String getStatus() {
+        return StatusCodes.decodeEnrollmentStatus(status);
+    }
+
+    byte getStatusCode() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public synchronized void setStatus(String status) {
         // Validate status
-        if (!status.equals("Enrolled") && !status.equals("Withdrawn") && !status.equals("Completed")) {
+        byte code = StatusCodes.encodeEnrollmentStatus(status);
+        if (code == StatusCodes.UNKNOWN) {
             throw new IllegalArgumentException("Status must be 'Enrolled', 'Withdrawn', or 'Completed'");
         }
-        this.status = status;
+        boolean wasPassed = isPassed();
+        changeStatus(code);
+        notifyStudent(wasPassed);
     }
 
     /**
@@ -79,12 +97,14 @@ public class Enrollment {
      * 
      * @return true if withdrawal successful, false otherwise
      */
-    public boolean withdraw() {
-        if (status.equals("Completed")) {
+    public synchronized boolean withdraw() {
+        if (status == StatusCodes.COMPLETED) {
             return false; // Can't withdraw from completed course
         }
 
-        status = "Withdrawn";
+        boolean wasPassed = isPassed();
+        changeStatus(StatusCodes.WITHDRAWN);
+        notifyStudent(wasPassed);
         return true;
     }
 
@@ -94,16 +114,127 @@ public class Enrollment {
      * @param finalGrade Final grade for the course
      * @return true if completion successful, false otherwise
      */
-    public boolean complete(String finalGrade) {
-        if (status.equals("Withdrawn")) {
+    public synchronized boolean complete(String finalGrade) {
+        if (status == StatusCodes.WITHDRAWN) {
             return false; // Can't complete withdrawn course
         }
 
-        grade = finalGrade;
-        status = "Completed";
+        boolean wasPassed = isPassed();
+        assignGrade(finalGrade);
+        changeStatus(StatusCodes.COMPLETED);
+        notifyStudent(wasPassed);
         return true;
     }
 
+    /**
+     * Mark this enrollment as counted by its course offering's seat counter
+     */
+    void attach() {
+        attached = true;
+    }
+
+    /**
+     * Mark this enrollment as part of its student's enrollment list
+     */
+    void track() {
+        tracked = true;
+        // From now on credit-hour changes to the course reweigh this enrollment
+        if (GradeCodes.countsTowardsGpa(status, gradeCode)) {
+            courseOffering.getCourse().setCountsTowardsGpa(this, true);
+        }
+    }
+
+    /**
+     * Check if the course was completed with a passing grade
+     * 
+     * @return true if completed and not failed, false otherwise
+     */
+    boolean isPassed() {
+        return status == StatusCodes.COMPLETED && grade != null && gradeCode != GradeCodes.F;
+    }
+
+    int getGpaCredits() {
+        return gpaCredits;
+    }
+
+    int getGpaPointTenths() {
+        return gpaPointTenths;
+    }
+
+    /**
+     * Reweigh the GPA contribution after the course's credit hours changed
+     */
+    synchronized void creditHoursChanged() {
+        notifyStudent(isPassed());
+    }
+
+    /**
+     * Tell the student when this enrollment starts or stops counting as a
+     * passed course, and when its contribution to the GPA changes
+     *
+     * @param wasPassed Whether the enrollment counted as passed before the change
+     */
+    private void notifyStudent(boolean wasPassed) {
+        boolean passed = isPassed();
+        if (tracked && passed != wasPassed) {
+            student.onPassedChanged(this, passed);
+        }
+
+        // Completed, graded enrollments count towards the GPA. A
+        // tracked one registers with the course before reading its credit
+        // hours, so a concurrent change to them reaches this enrollment.
+        boolean counted = GradeCodes.countsTowardsGpa(status, gradeCode);
+        Course course = courseOffering.getCourse();
+        if (tracked) {
+            course.setCountsTowardsGpa(this, counted);
+        }
+        int credits = 0;
+        int pointTenths = 0;
+        if (counted) {
+            credits = course.getCreditHours();
+            pointTenths = GradeCodes.pointTenths(gradeCode) * credits;
+        }
+        if (tracked && (credits != gpaCredits || pointTenths != gpaPointTenths)) {
+            student.onGpaContributionChanged(credits - gpaCredits, pointTenths - gpaPointTenths);
+        }
+        gpaCredits = credits;
+        gpaPointTenths = pointTenths;
+    }
+
+    private void assignGrade(String grade) {
+        this.grade = grade;
+        this.gradeCode = GradeCodes.encode(grade);
+    }
+
+    /**
+     * Apply a status transition, reporting it to the course offering first so
+     * its seat count stays current and it can refuse a re-enrollment when full.
+     * Callers hold this enrollment's lock, so two racing transitions cannot both
+     * report leaving the same status and free the seat twice.
+     *
+     * @param newStatus New status code
+     */
+    private void changeStatus(byte newStatus) {
+        byte oldStatus = status;
+        if (newStatus == oldStatus) {
+            return;
+        }
+        if (attached) {
+            courseOffering.onEnrollmentStatusChanged(oldStatus, newStatus);
+        }
+        if (!tracked) {
+            status = newStatus;
+            return;
+        }
+
+        // Report views read a student's enrollment statuses under the student's
+        // lock; publish the new status together with its count change
+        synchronized (student) {
+            status = newStatus;
+            student.onEnrollmentStatusChanged(this, oldStatus, newStatus);
+        }
+    }
+
     @Override
     public String toString() {
         return "Enrollment{" +
@@ -112,7 +243,7 @@ public class Enrollment {
                 ", course=" + courseOffering.getCourse().getCourseId() +
                 ", enrollmentDate=" + enrollmentDate +
                 ", grade='" + (grade != null ? grade : "Not graded") + '\'' +
-                ", status='" + status + '\'' +
+                ", status='" + getStatus() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package uni;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data access object for enrollments
+ *
+ * Table: enrollments(enrollment_id, student_id, offering_id, enrollment_date,
+ * grade, status) with a unique key on (student_id, offering_id).
+ */
+public class EnrollmentDAO extends BaseDAO {
+    private static final String FIND_ROSTER = StudentDAO.SELECT_COLUMNS +
+            "JOIN enrollments e ON e.student_id = s.student_id " +
+            "WHERE e.offering_id = ? AND e.status = 'Enrolled' ORDER BY s.student_id";
+    private static final String FIND_BY_STUDENT = "SELECT enrollment_id, offering_id, enrollment_date, grade, " +
+            "status FROM enrollments WHERE student_id = ? ORDER BY enrollment_date";
+    private static final String INSERT = "INSERT INTO enrollments " +
+            "(student_id, offering_id, enrollment_date, grade, status) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPSERT = "INSERT INTO enrollments " +
+            "(student_id, offering_id, enrollment_date, grade, status) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT(student_id, offering_id) DO UPDATE SET enrollment_date = excluded.enrollment_date, " +
+            "grade = excluded.grade, status = excluded.status";
+    private static final String UPDATE_STATUS = "UPDATE enrollments SET grade = ?, status = ? " +
+            "WHERE enrollment_id = ?";
+
+    /**
+     * Constructor for EnrollmentDAO class
+     *
+     * @param databaseManager Connection pool to borrow from
+     */
+    public EnrollmentDAO(DatabaseManager databaseManager) {
+        super(databaseManager);
+    }
+
+    /**
+     * Load the students currently enrolled in an offering
+     *
+     * @param offeringId Offering ID
+     * @return List of enrolled students ordered by student ID
+     * @throws SQLException if the query fails
+     */
+    public List<Student> findRoster(int offeringId) throws SQLException {
+        return queryList(FIND_ROSTER, ps -> ps.setInt(1, offeringId), StudentDAO.MAPPER);
+    }
+
+    /**
+     * Load every enrollment of a student
+     *
+     * @param student   Student to load enrollments for
+     * @param offerings Loaded offerings keyed by offering ID
+     * @return List of enrollments; rows whose offering is not loaded are skipped
+     * @throws SQLException if the query fails
+     */
+    public List<Enrollment> findByStudent(Student student, Map<Integer, CourseOffering> offerings)
+            throws SQLException {
+        List<Enrollment> enrollments = queryList(FIND_BY_STUDENT, ps -> ps.setString(1, student.getStudentId()),
+                rs -> {
+                    CourseOffering offering = offerings.get(rs.getInt("offering_id"));
+                    if (offering == null) {
+                        return null;
+                    }
+                    return new Enrollment(rs.getInt("enrollment_id"), student, offering,
+                            LocalDate.parse(rs.getString("enrollment_date")), rs.getString("grade"),
+                            rs.getString("status"));
+                });
+        enrollments.removeIf(enrollment -> enrollment == null);
+        return enrollments;
+    }
+
+    /**
+     * Insert a new enrollment
+     *
+     * @param enrollment Enrollment to insert
+     * @throws SQLException if the update fails
+     */
+    public void insert(Enrollment enrollment) throws SQLException {
+        update(INSERT, ps -> {
+            ps.setString(1, enrollment.getStudent().getStudentId());
+            ps.setInt(2, enrollment.getCourseOffering().getOfferingId());
+            ps.setString(3, enrollment.getEnrollmentDate().toString());
+            setGrade(ps, 4, enrollment.getGrade());
+            ps.setString(5, enrollment.getStatus());
+        });
+    }
+
+    /**
+     * Write a batch of enrollment snapshots in one transaction, inserting new
+     * rows and updating existing ones
+     *
+     * @param records Snapshots to write
+     * @return Number of records written
+     * @throws SQLException if the batch fails; nothing is written
+     */
+    public int upsertAll(Collection<EnrollmentRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        return inTransaction((conn, cache) -> {
+            PreparedStatement ps = cache.prepare(UPSERT);
+            for (EnrollmentRecord record : records) {
+                ps.setString(1, record.getStudentId());
+                ps.setInt(2, record.getOfferingId());
+                ps.setString(3, record.getEnrollmentDate().toString());
+                setGrade(ps, 4, record.getGrade());
+                ps.setString(5, record.getStatus());
+                ps.addBatch();
+            }
+            try {
+                ps.executeBatch();
+            } finally {
+                ps.clearBatch(); // The statement is cached; never leave rows queued on it
+            }
+            return records.size();
+        });
+    }
+
+    /**
+     * Persist a grade or status change
+     *
+     * @param enrollment Enrollment that changed
+     * @return true if a row was updated, false otherwise
+     * @throws SQLException if the update fails
+     */
+    public boolean updateStatus(Enrollment enrollment) throws SQLException {
+        return update(UPDATE_STATUS, ps -> {
+            setGrade(ps, 1, enrollment.getGrade());
+            ps.setString(2, enrollment.getStatus());
+            ps.setInt(3, enrollment.getEnrollmentId());
+        }) > 0;
+    }
+
+    private static void setGrade(PreparedStatement ps, int index, String grade) throws SQLException {
+        if (grade != null) {
+            ps.setString(index, grade);
+        } else {
+            ps.setNull(index, Types.VARCHAR);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package uni;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable snapshot of an enrollment's persisted state
+ *
+ * Records are keyed by student and offering, so later snapshots of the same
+ * enrollment replace earlier ones when they are coalesced.
+ */
+public final class EnrollmentRecord {
+    private static final int FIELD_COUNT = 6;
+
+    private final int enrollmentId;
+    private final String studentId;
+    private final int offeringId;
+    private final LocalDate enrollmentDate;
+    private final String grade;
+    private final String status;
+
+    /**
+     * Constructor for EnrollmentRecord class
+     *
+     * @param enrollmentId   Enrollment ID
+     * @param studentId      Student ID
+     * @param offeringId     Course offering ID
+     * @param enrollmentDate Date of enrollment
+     * @param grade          Grade received (may be null)
+     * @param status         Enrollment status
+     */
+    public EnrollmentRecord(int enrollmentId, String studentId, int offeringId, LocalDate enrollmentDate,
+            String grade, String status) {
+        this.enrollmentId = enrollmentId;
+        this.studentId = studentId;
+        this.offeringId = offeringId;
+        this.enrollmentDate = enrollmentDate;
+        this.grade = grade;
+        this.status = status;
+    }
+
+    /**
+     * Take a snapshot of an enrollment
+     *
+     * @param enrollment Enrollment to snapshot
+     * @return Record holding the enrollment's current state
+     */
+    public static EnrollmentRecord of(Enrollment enrollment) {
+        return new EnrollmentRecord(enrollment.getEnrollmentId(), enrollment.getStudent().getStudentId(),
+                enrollment.getCourseOffering().getOfferingId(), enrollment.getEnrollmentDate(),
+                enrollment.getGrade(), enrollment.getStatus());
+    }
+
+    /**
+     * Parse a record from its log line form
+     *
+     * @param line Line produced by {@link #toLogLine()}
+     * @return Parsed record
+     * @throws IllegalArgumentException if the line is malformed or torn
+     */
+    public static EnrollmentRecord fromLogLine(String line) {
+        String[] fields = RecordCodec.decode(line);
+        if (fields == null || fields.length != FIELD_COUNT) {
+            throw new IllegalArgumentException("Malformed enrollment record: " + line);
+        }
+        return new EnrollmentRecord(Integer.parseInt(fields[0]), fields[1], Integer.parseInt(fields[2]),
+                LocalDate.parse(fields[3]), fields[4], fields[5]);
+    }
+
+    /**
+     * Format this record as a single log line in the {@link RecordCodec} format
+     *
+     * @return Encoded fields without a line terminator
+     */
+    public String toLogLine() {
+        return RecordCodec.encode(toFields());
+    }
+
+    /**
+     * Get the fields of this record in log line order
+     *
+     * @return Enrollment ID, student ID, offering ID, date, grade and status
+     */
+    public String[] toFields() {
+        return new String[] { String.valueOf(enrollmentId), studentId, String.valueOf(offeringId),
+                enrollmentDate.toString(), grade, status };
+    }
+
+    /**
+     * Get the coalescing key shared by every snapshot of the same enrollment
+     *
+     * @return Key built from student ID and offering ID
+     */
+    public String getKey() {
+        return studentId + "#" + offeringId;
+    }
+
+    // Getters
+    public int getEnrollmentId() {
+        return enrollmentId;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public int getOfferingId() {
+        return offeringId;
+    }
+
+    public LocalDate getEnrollmentDate() {
+        return enrollmentDate;
+    }
+
+    public String getGrade() {
+        return grade;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,418 @@
+package uni;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory store of enrollments for analytics
+ *
+ * Each enrollment is one row spread over parallel primitive arrays (student
+ * ordinal, offering ordinal, epoch day, grade code, status code) instead of
+ * an object graph. Rows of the same student and of the same offering are
+ * chained through next-row arrays, so per-student and per-offering queries
+ * visit only their own rows while catalog-wide reports scan the arrays
+ * sequentially.
+ */
+public class EnrollmentStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_ROW = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ordinal dictionaries
+    private final Map<String, Integer> studentOrdinals = new HashMap<>();
+    private final List<String> studentIds = new ArrayList<>();
+    private final Map<Integer, Integer> offeringOrdinals = new HashMap<>();
+    private int[] offeringIds = new int[INITIAL_CAPACITY];
+    private Course[] offeringCourses = new Course[INITIAL_CAPACITY]; // Credit hours are read at query time
+    private int offeringCount;
+
+    // Row columns
+    private int[] studentColumn = new int[INITIAL_CAPACITY];
+    private int[] offeringColumn = new int[INITIAL_CAPACITY];
+    private int[] epochDayColumn = new int[INITIAL_CAPACITY];
+    private byte[] gradeColumn = new byte[INITIAL_CAPACITY];
+    private byte[] statusColumn = new byte[INITIAL_CAPACITY];
+    private int rowCount;
+
+    // Row chains: first row per ordinal and next row of the same ordinal
+    private int[] firstRowByStudent = new int[INITIAL_CAPACITY];
+    private int[] nextRowByStudent = new int[INITIAL_CAPACITY];
+    private int[] firstRowByOffering = new int[INITIAL_CAPACITY];
+    private int[] nextRowByOffering = new int[INITIAL_CAPACITY];
+
+    /**
+     * Constructor for EnrollmentStore class
+     */
+    public EnrollmentStore() {
+        Arrays.fill(firstRowByStudent, NO_ROW);
+        Arrays.fill(firstRowByOffering, NO_ROW);
+    }
+
+    /**
+     * Build a store from loaded university data
+     * 
+     * @param data Loaded data
+     * @return Store holding every offering and enrollment
+     */
+    public static EnrollmentStore of(UniversityData data) {
+        EnrollmentStore store = new EnrollmentStore();
+        for (CourseOffering offering : data.getOfferings()) {
+            store.registerOffering(offering);
+        }
+        for (Enrollment enrollment : data.getEnrollments()) {
+            store.record(enrollment);
+        }
+        return store;
+    }
+
+    /**
+     * Register an offering so GPA queries can weigh it by its course's
+     * current credit hours
+     * 
+     * @param offering Offering to register
+     */
+    public void registerOffering(CourseOffering offering) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = offeringOrdinal(offering.getOfferingId());
+            offeringCourses[ordinal] = offering.getCourse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or update the row of an enrollment
+     * 
+     * @param enrollment Enrollment to store
+     */
+    public void record(Enrollment enrollment) {
+        lock.writeLock().lock();
+        try {
+            int offering = offeringOrdinal(enrollment.getCourseOffering().getOfferingId());
+            offeringCourses[offering] = enrollment.getCourseOffering().getCourse();
+            put(studentOrdinal(enrollment.getStudent().getStudentId()), offering,
+                    enrollment.getEnrollmentDate(), enrollment.getGradeCode(), enrollment.getStatusCode());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or update a row from a persisted enrollment record. The offering
+     * should be registered first for its credit hours to count in GPA queries.
+     * 
+     * @param record Enrollment record to store
+     */
+    public void record(EnrollmentRecord record) {
+        byte status = StatusCodes.encodeEnrollmentStatus(record.getStatus());
+        if (status == StatusCodes.UNKNOWN) {
+            throw new IllegalArgumentException("Unknown enrollment status: " + record.getStatus());
+        }
+        lock.writeLock().lock();
+        try {
+            put(studentOrdinal(record.getStudentId()), offeringOrdinal(record.getOfferingId()),
+                    record.getEnrollmentDate(), GradeCodes.encode(record.getGrade()), status);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of stored enrollments
+     * 
+     * @return Number of rows
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count rows per enrollment status
+     * 
+     * @return Counts indexed by status code (Enrolled, Withdrawn, Completed)
+     */
+    public int[] countByStatus() {
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[3];
+            for (int row = 0; row < rowCount; row++) {
+                counts[statusColumn[row]]++;
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count completed enrollments per letter grade
+     * 
+     * @return Counts indexed by grade code
+     */
+    public int[] getGradeDistribution() {
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[GradeCodes.F + 1];
+            for (int row = 0; row < rowCount; row++) {
+                if (statusColumn[row] == StatusCodes.COMPLETED && gradeColumn[row] >= 0) {
+                    counts[gradeColumn[row]]++;
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count currently enrolled students per offering
+     * 
+     * @return Offering ID mapped to enrolled count, for every known offering
+     */
+    public Map<Integer, Integer> getEnrolledCounts() {
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[offeringCount];
+            for (int row = 0; row < rowCount; row++) {
+                if (statusColumn[row] == StatusCodes.ENROLLED) {
+                    counts[offeringColumn[row]]++;
+                }
+            }
+            Map<Integer, Integer> result = new LinkedHashMap<>();
+            for (int ordinal = 0; ordinal < offeringCount; ordinal++) {
+                result.put(offeringIds[ordinal], counts[ordinal]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count the students currently enrolled in an offering
+     * 
+     * @param offeringId Offering ID
+     * @return Number of rows in "Enrolled" status
+     */
+    public int countEnrolled(int offeringId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = offeringOrdinals.get(offeringId);
+            int count = 0;
+            if (ordinal != null) {
+                for (int row = firstRowByOffering[ordinal]; row != NO_ROW; row = nextRowByOffering[row]) {
+                    if (statusColumn[row] == StatusCodes.ENROLLED) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the IDs of the students currently enrolled in an offering
+     * 
+     * @param offeringId Offering ID
+     * @return List of student IDs
+     */
+    public List<String> getEnrolledStudentIds(int offeringId) {
+        lock.readLock().lock();
+        try {
+            List<String> result = new ArrayList<>();
+            Integer ordinal = offeringOrdinals.get(offeringId);
+            if (ordinal != null) {
+                for (int row = firstRowByOffering[ordinal]; row != NO_ROW; row = nextRowByOffering[row]) {
+                    if (statusColumn[row] == StatusCodes.ENROLLED) {
+                        result.add(studentIds.get(studentColumn[row]));
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Calculate a student's GPA from the stored rows
+     * 
+     * @param studentId Student ID
+     * @return GPA value, 0.0 if the student has no graded courses
+     */
+    public double calculateGPA(String studentId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = studentOrdinals.get(studentId);
+            int credits = 0;
+            long pointTenths = 0;
+            if (ordinal != null) {
+                for (int row = firstRowByStudent[ordinal]; row != NO_ROW; row = nextRowByStudent[row]) {
+                    if (GradeCodes.countsTowardsGpa(statusColumn[row], gradeColumn[row])) {
+                        int hours = creditHours(offeringColumn[row]);
+                        credits += hours;
+                        pointTenths += (long) GradeCodes.pointTenths(gradeColumn[row]) * hours;
+                    }
+                }
+            }
+            return credits > 0 ? pointTenths / 10.0 / credits : 0.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Calculate the GPA of every stored student in one sequential scan
+     * 
+     * @return Student ID mapped to GPA, for students with graded courses
+     */
+    public Map<String, Double> calculateAllGPAs() {
+        lock.readLock().lock();
+        try {
+            int[] credits = new int[studentIds.size()];
+            long[] pointTenths = new long[studentIds.size()];
+            for (int row = 0; row < rowCount; row++) {
+                if (GradeCodes.countsTowardsGpa(statusColumn[row], gradeColumn[row])) {
+                    int hours = creditHours(offeringColumn[row]);
+                    credits[studentColumn[row]] += hours;
+                    pointTenths[studentColumn[row]] += (long) GradeCodes.pointTenths(gradeColumn[row]) * hours;
+                }
+            }
+            Map<String, Double> result = new LinkedHashMap<>();
+            for (int ordinal = 0; ordinal < credits.length; ordinal++) {
+                if (credits[ordinal] > 0) {
+                    result.put(studentIds.get(ordinal), pointTenths[ordinal] / 10.0 / credits[ordinal]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the enrollment date of a stored row
+     * 
+     * @param studentId  Student ID
+     * @param offeringId Offering ID
+     * @return Enrollment date, or null if there is no such row
+     */
+    public LocalDate getEnrollmentDate(String studentId, int offeringId) {
+        lock.readLock().lock();
+        try {
+            int row = findRow(studentId, offeringId);
+            return row != NO_ROW ? LocalDate.ofEpochDay(epochDayColumn[row]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Update the row for a student and offering, appending one if none exists.
+     * The caller must hold the write lock.
+     */
+    private void put(int student, int offering, LocalDate enrollmentDate, byte grade, byte status) {
+        int row = NO_ROW;
+        for (int r = firstRowByStudent[student]; r != NO_ROW; r = nextRowByStudent[r]) {
+            if (offeringColumn[r] == offering) {
+                row = r;
+                break;
+            }
+        }
+
+        if (row == NO_ROW) {
+            row = rowCount++;
+            ensureRowCapacity(rowCount);
+            studentColumn[row] = student;
+            offeringColumn[row] = offering;
+            nextRowByStudent[row] = firstRowByStudent[student];
+            firstRowByStudent[student] = row;
+            nextRowByOffering[row] = firstRowByOffering[offering];
+            firstRowByOffering[offering] = row;
+        }
+        epochDayColumn[row] = enrollmentDate != null ? (int) enrollmentDate.toEpochDay() : 0;
+        gradeColumn[row] = grade;
+        statusColumn[row] = status;
+    }
+
+    private int findRow(String studentId, int offeringId) {
+        Integer student = studentOrdinals.get(studentId);
+        Integer offering = offeringOrdinals.get(offeringId);
+        if (student == null || offering == null) {
+            return NO_ROW;
+        }
+        for (int row = firstRowByStudent[student]; row != NO_ROW; row = nextRowByStudent[row]) {
+            if (offeringColumn[row] == offering) {
+                return row;
+            }
+        }
+        return NO_ROW;
+    }
+
+    private int studentOrdinal(String studentId) {
+        Integer ordinal = studentOrdinals.get(studentId);
+        if (ordinal == null) {
+            ordinal = studentIds.size();
+            studentOrdinals.put(studentId, ordinal);
+            studentIds.add(studentId);
+            if (ordinal >= firstRowByStudent.length) {
+                int oldLength = firstRowByStudent.length;
+                firstRowByStudent = Arrays.copyOf(firstRowByStudent, oldLength * 2);
+                Arrays.fill(firstRowByStudent, oldLength, firstRowByStudent.length, NO_ROW);
+            }
+        }
+        return ordinal;
+    }
+
+    private int creditHours(int offeringOrdinal) {
+        Course course = offeringCourses[offeringOrdinal];
+        return course != null ? course.getCreditHours() : 0; // Unregistered offerings carry no weight
+    }
+
+    private int offeringOrdinal(int offeringId) {
+        Integer ordinal = offeringOrdinals.get(offeringId);
+        if (ordinal == null) {
+            ordinal = offeringCount++;
+            offeringOrdinals.put(offeringId, ordinal);
+            if (ordinal >= offeringIds.length) {
+                int oldLength = offeringIds.length;
+                offeringIds = Arrays.copyOf(offeringIds, oldLength * 2);
+                offeringCourses = Arrays.copyOf(offeringCourses, oldLength * 2);
+                firstRowByOffering = Arrays.copyOf(firstRowByOffering, oldLength * 2);
+                Arrays.fill(firstRowByOffering, oldLength, firstRowByOffering.length, NO_ROW);
+            }
+            offeringIds[ordinal] = offeringId;
+        }
+        return ordinal;
+    }
+
+    private void ensureRowCapacity(int required) {
+        if (required <= studentColumn.length) {
+            return;
+        }
+        int capacity = Math.max(required, studentColumn.length * 2);
+        studentColumn = Arrays.copyOf(studentColumn, capacity);
+        offeringColumn = Arrays.copyOf(offeringColumn, capacity);
+        epochDayColumn = Arrays.copyOf(epochDayColumn, capacity);
+        gradeColumn = Arrays.copyOf(gradeColumn, capacity);
+        statusColumn = Arrays.copyOf(statusColumn, capacity);
+        nextRowByStudent = Arrays.copyOf(nextRowByStudent, capacity);
+        nextRowByOffering = Arrays.copyOf(nextRowByOffering, capacity);
+    }
+}
@@ -0,0 +1,320 @@
+package uni;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind queue for enrollment changes
+ *
+ * Every change is appended to a durable log before it is acknowledged, then
+ * coalesced in memory (latest snapshot per student and offering wins) and
+ * flushed to a {@link Sink} in batches once enough changes are pending or the
+ * flush interval elapses. On startup {@link #recover()} replays any log left
+ * behind by a crash.
+ */
+public class EnrollmentWriteBehind {
+    /**
+     * Destination of the flushed batches, e.g. the database or the journal
+     */
+    public interface Sink {
+        void writeAll(Collection<EnrollmentRecord> records) throws IOException;
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 2000;
+
+    private final Sink sink;
+    private final Path logFile;
+    private final Path flushingFile;
+    private final int batchSize;
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private Map<String, EnrollmentRecord> pending = new LinkedHashMap<>();
+    private OutputStream log;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    // Statistics
+    private final AtomicLong recordsQueued = new AtomicLong();
+    private final AtomicLong recordsFlushed = new AtomicLong();
+    private final AtomicLong batchesFlushed = new AtomicLong();
+
+    /**
+     * Constructor for EnrollmentWriteBehind class with default batching
+     *
+     * @param enrollmentDAO DAO batches are written through
+     * @param logFile       Path of the durable append log
+     * @throws IOException if the log cannot be opened
+     */
+    public EnrollmentWriteBehind(EnrollmentDAO enrollmentDAO, Path logFile) throws IOException {
+        this(databaseSink(enrollmentDAO), logFile, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * Constructor for EnrollmentWriteBehind class writing to the database
+     *
+     * @param enrollmentDAO   DAO batches are written through
+     * @param logFile         Path of the durable append log
+     * @param batchSize       Pending changes that trigger an early flush
+     * @param flushIntervalMs Maximum time a change waits before being flushed
+     * @throws IOException if the log cannot be opened
+     */
+    public EnrollmentWriteBehind(EnrollmentDAO enrollmentDAO, Path logFile, int batchSize, long flushIntervalMs)
+            throws IOException {
+        this(databaseSink(enrollmentDAO), logFile, batchSize, flushIntervalMs);
+    }
+
+    /**
+     * Constructor for EnrollmentWriteBehind class with default batching
+     *
+     * @param sink    Destination batches are written to
+     * @param logFile Path of the durable append log
+     * @throws IOException if the log cannot be opened
+     */
+    public EnrollmentWriteBehind(Sink sink, Path logFile) throws IOException {
+        this(sink, logFile, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * Constructor for EnrollmentWriteBehind class
+     *
+     * @param sink            Destination batches are written to
+     * @param logFile         Path of the durable append log
+     * @param batchSize       Pending changes that trigger an early flush
+     * @param flushIntervalMs Maximum time a change waits before being flushed
+     * @throws IOException if the log cannot be opened
+     */
+    public EnrollmentWriteBehind(Sink sink, Path logFile, int batchSize, long flushIntervalMs) throws IOException {
+        if (batchSize <= 0 || flushIntervalMs <= 0) {
+            throw new IllegalArgumentException("Batch size and flush interval must be positive");
+        }
+        this.sink = sink;
+        this.logFile = logFile;
+        this.flushingFile = logFile.resolveSibling(logFile.getFileName() + ".flushing");
+        this.batchSize = batchSize;
+        RecordCodec.terminateTornLine(logFile);
+        this.log = openLog();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "enrollment-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue the current state of an enrollment for persistence. Returns once the
+     * change is durable in the log.
+     *
+     * @param enrollment Enrollment that changed
+     * @throws IOException if the change cannot be logged
+     */
+    public void record(Enrollment enrollment) throws IOException {
+        EnrollmentRecord record = EnrollmentRecord.of(enrollment);
+        boolean triggerFlush;
+
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Enrollment write-behind queue is closed");
+            }
+            log.write((record.toLogLine() + "\n").getBytes(StandardCharsets.UTF_8));
+            log.flush();
+            pending.put(record.getKey(), record);
+            recordsQueued.incrementAndGet();
+
+            triggerFlush = pending.size() >= batchSize && !flushScheduled;
+            if (triggerFlush) {
+                flushScheduled = true;
+            }
+        }
+
+        if (triggerFlush) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Write every pending change to the sink now
+     *
+     * @throws IOException if the log cannot be rotated or the batch fails
+     */
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            Map<String, EnrollmentRecord> batch;
+            boolean retrying;
+
+            synchronized (lock) {
+                flushScheduled = false;
+                retrying = Files.exists(flushingFile);
+                if (pending.isEmpty() && !retrying) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                rotateLog();
+            }
+
+            if (retrying) {
+                // A previous batch failed; its records are still in the rotated log
+                batch = new LinkedHashMap<>();
+                readLog(flushingFile, batch);
+            }
+            writeBatch(new ArrayList<>(batch.values()));
+        }
+    }
+
+    /**
+     * Replay changes left in the log by a previous run that did not shut down
+     * cleanly
+     *
+     * @return Number of records replayed
+     * @throws IOException if the log cannot be read or the replay fails
+     */
+    public int recover() throws IOException {
+        synchronized (flushLock) {
+            synchronized (lock) {
+                rotateLog();
+            }
+
+            Map<String, EnrollmentRecord> replay = new LinkedHashMap<>();
+            readLog(flushingFile, replay);
+            writeBatch(new ArrayList<>(replay.values()));
+            return replay.size();
+        }
+    }
+
+    /**
+     * Flush pending changes and stop the background flusher. If the final flush
+     * fails, the changes stay in the log for {@link #recover()}.
+     *
+     * @throws IOException if the final flush fails
+     */
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(DEFAULT_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (lock) {
+                log.close();
+            }
+        }
+    }
+
+    // Statistics
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getRecordsQueued() {
+        return recordsQueued.get();
+    }
+
+    public long getRecordsFlushed() {
+        return recordsFlushed.get();
+    }
+
+    public long getBatchesFlushed() {
+        return batchesFlushed.get();
+    }
+
+    private void writeBatch(List<EnrollmentRecord> batch) throws IOException {
+        if (!batch.isEmpty()) {
+            sink.writeAll(batch); // On failure the rotated log is kept and replayed by recover()
+            recordsFlushed.addAndGet(batch.size());
+            batchesFlushed.incrementAndGet();
+        }
+        Files.deleteIfExists(flushingFile);
+    }
+
+    /**
+     * Move the live log aside so changes arriving during a flush are kept
+     * separately. The caller must hold the queue lock.
+     */
+    private void rotateLog() throws IOException {
+        log.close();
+        if (Files.exists(flushingFile)) {
+            RecordCodec.terminateTornLine(flushingFile);
+            Files.write(flushingFile, Files.readAllBytes(logFile), StandardOpenOption.APPEND);
+            Files.delete(logFile);
+        } else {
+            Files.move(logFile, flushingFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        log = openLog();
+    }
+
+    private static Sink databaseSink(EnrollmentDAO enrollmentDAO) {
+        return records -> {
+            try {
+                enrollmentDAO.upsertAll(records);
+            } catch (SQLException e) {
+                throw new IOException("Error flushing enrollments: " + e.getMessage(), e);
+            }
+        };
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private OutputStream openLog() throws IOException {
+        // DSYNC makes every appended record durable before record() returns
+        return Files.newOutputStream(logFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                StandardOpenOption.DSYNC);
+    }
+
+    private static void readLog(Path file, Map<String, EnrollmentRecord> into) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    EnrollmentRecord record = EnrollmentRecord.fromLogLine(line);
+                    into.put(record.getKey(), record);
+                } catch (RuntimeException e) {
+                    // A torn final line from a crash mid-append carries nothing durable
+                    System.err.println("Skipping unreadable enrollment log line: " + line);
+                }
+            }
+        }
+    }
+}
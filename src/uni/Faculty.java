@@ -1,7 +1,13 @@
 package uni;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Faculty class that extends User
@@ -10,7 +16,13 @@ public class Faculty extends User {
     private String facultyId;
     private Department department;
     private String expertise;
-    private List<CourseOffering> coursesTeaching;
+    private Map<Integer, CourseOffering> coursesTeaching; // Keyed by offering ID, in assignment order
+    private volatile List<CourseOffering> coursesTeachingView = Collections.emptyList(); // Republished on change
+    private int creditHours; // Credit hours of the offerings taught
+    private final Map<Integer, Integer> creditHoursCounted = new HashMap<>(); // Per offering ID, within creditHours
+    private final AtomicInteger studentsTaught = new AtomicInteger(); // Seats taken in the offerings taught
+    private final CourseOffering.SeatListener seatListener = (offering, delta) -> studentsTaught.addAndGet(delta);
+    private final Course.CreditHoursListener creditHoursListener = this::creditHoursChanged;
 
     /**
      * Constructor for Faculty class
@@ -31,7 +43,7 @@ public class Faculty extends User {
         this.facultyId = facultyId;
         this.department = department;
         this.expertise = expertise;
-        this.coursesTeaching = new ArrayList<>();
+        this.coursesTeaching = new LinkedHashMap<>();
     }
 
     // Getters and setters
@@ -56,25 +68,68 @@ public class Faculty extends User {
     }
 
     public List<CourseOffering> getCoursesTeaching() {
-        return new ArrayList<>(coursesTeaching); // Return a copy to preserve encapsulation
+        return coursesTeachingView; // Shared read-only snapshot; writes publish a new one
+    }
+
+    public synchronized int getCourseCount() {
+        return coursesTeaching.size();
+    }
+
+    public synchronized int getCreditHours() {
+        return creditHours;
+    }
+
+    /**
+     * Get the number of students in the offerings this faculty teaches. Seats
+     * reserved by registrations still in progress are included.
+     * 
+     * @return Number of students taught
+     */
+    public int getStudentsTaught() {
+        return studentsTaught.get();
     }
 
     /**
-     * Assign a course to this faculty
+     * Check if this faculty teaches an offering
+     * 
+     * @param courseOffering Offering to check
+     * @return true if teaching it, false otherwise
+     */
+    public synchronized boolean isTeaching(CourseOffering courseOffering) {
+        return coursesTeaching.get(courseOffering.getOfferingId()) == courseOffering;
+    }
+
+    /**
+     * Assign a course to this faculty, taking it over from its previous
+     * instructor if it had one
      * 
      * @param courseOffering Course to assign
      * @return true if assignment successful, false otherwise
      */
     public boolean assignCourse(CourseOffering courseOffering) {
-        // Check if already teaching this course
-        for (CourseOffering offering : coursesTeaching) {
-            if (offering.getOfferingId() == courseOffering.getOfferingId()) {
+        synchronized (this) {
+            // Check if already teaching this course
+            if (coursesTeaching.putIfAbsent(courseOffering.getOfferingId(), courseOffering) != null) {
                 return false; // Already assigned to this course
             }
+
+            coursesTeachingChanged();
+            // Listen before reading the hours; a change in between is recounted by the listener
+            Course course = courseOffering.getCourse();
+            course.addCreditHoursListener(creditHoursListener);
+            int hours = course.getCreditHours();
+            creditHoursCounted.put(courseOffering.getOfferingId(), hours);
+            creditHours += hours;
+            courseOffering.addSeatListener(seatListener);
+            studentsTaught.addAndGet(courseOffering.getSeatsTaken());
         }
 
-        coursesTeaching.add(courseOffering);
-        courseOffering.setFaculty(this);
+        // Release the previous instructor without holding this lock, so two
+        // faculty taking over each other's offerings cannot deadlock
+        Faculty previous = courseOffering.replaceFaculty(this);
+        if (previous != null && previous != this) {
+            previous.release(courseOffering);
+        }
         return true;
     }
 
@@ -85,11 +140,53 @@ public class Faculty extends User {
      * @return true if removal successful, false otherwise
      */
     public boolean removeCourse(CourseOffering courseOffering) {
-        boolean result = coursesTeaching.remove(courseOffering);
-        if (result) {
-            courseOffering.setFaculty(null);
+        if (!release(courseOffering)) {
+            return false; // Not teaching this course
         }
-        return result;
+        courseOffering.clearFaculty(this);
+        return true;
+    }
+
+    /**
+     * Stop counting an offering's credit hours and students for this faculty
+     * 
+     * @param courseOffering Offering no longer taught
+     * @return true if it was taught, false otherwise
+     */
+    private synchronized boolean release(CourseOffering courseOffering) {
+        if (!coursesTeaching.remove(courseOffering.getOfferingId(), courseOffering)) {
+            return false; // Not teaching this course
+        }
+
+        coursesTeachingChanged();
+        creditHours -= creditHoursCounted.remove(courseOffering.getOfferingId());
+        courseOffering.getCourse().removeCreditHoursListener(creditHoursListener);
+        courseOffering.removeSeatListener(seatListener);
+        studentsTaught.addAndGet(-courseOffering.getSeatsTaken());
+        return true;
+    }
+
+    /**
+     * Recount the credit hours of every offering taught of a course whose
+     * credit hours changed. Counting the current value rather than the
+     * difference keeps repeated notifications harmless.
+     * 
+     * @param course Course whose credit hours changed
+     */
+    private synchronized void creditHoursChanged(Course course) {
+        for (CourseOffering offering : coursesTeaching.values()) {
+            if (offering.getCourse() == course) {
+                int hours = course.getCreditHours();
+                creditHours += hours - creditHoursCounted.put(offering.getOfferingId(), hours);
+            }
+        }
+    }
+
+    /**
+     * Publish a new snapshot of the offerings taught
+     */
+    private void coursesTeachingChanged() {
+        coursesTeachingView = Collections.unmodifiableList(new ArrayList<>(coursesTeaching.values()));
     }
 
     /**
@@ -102,7 +199,7 @@ public class Faculty extends User {
     public boolean assignGrade(Enrollment enrollment, String grade) {
         // Check if this faculty teaches the course
         CourseOffering offering = enrollment.getCourseOffering();
-        if (!coursesTeaching.contains(offering)) {
+        if (!isTeaching(offering)) {
             return false; // Not teaching this course
         }
 
@@ -122,11 +219,7 @@ public class Faculty extends User {
      * @return true if valid, false otherwise
      */
     private boolean isValidGrade(String grade) {
-        return grade != null &&
-                (grade.equals("A") || grade.equals("A-") ||
-                        grade.equals("B+") || grade.equals("B") || grade.equals("B-") ||
-                        grade.equals("C+") || grade.equals("C") || grade.equals("C-") ||
-                        grade.equals("D+") || grade.equals("D") || grade.equals("F"));
+        return GradeCodes.isValid(GradeCodes.encode(grade));
     }
 
     /**
@@ -134,19 +227,25 @@ public class Faculty extends User {
      * 
      * @param courseOffering Course to check
      * @return List of students
+     * @deprecated Copies the roster; use {@link #getStudentRosterView(CourseOffering)}
      */
+    @Deprecated
     public List<Student> getStudentRoster(CourseOffering courseOffering) {
-        if (!coursesTeaching.contains(courseOffering)) {
-            return new ArrayList<>(); // Not teaching this course
-        }
+        return new ArrayList<>(getStudentRosterView(courseOffering));
+    }
 
-        List<Student> students = new ArrayList<>();
-        for (Enrollment enrollment : courseOffering.getEnrollments()) {
-            if (enrollment.getStatus().equals("Enrolled")) {
-                students.add(enrollment.getStudent());
-            }
+    /**
+     * Get the students enrolled in a specific course as a read-only live view,
+     * without copying the roster
+     * 
+     * @param courseOffering Course to check
+     * @return Unmodifiable view of the students
+     */
+    public Collection<Student> getStudentRosterView(CourseOffering courseOffering) {
+        if (!isTeaching(courseOffering)) {
+            return Collections.emptyList(); // Not teaching this course
         }
-        return students;
+        return courseOffering.getRoster();
     }
 
     @Override
@@ -160,7 +259,7 @@ public class Faculty extends User {
                 "facultyId='" + facultyId + '\'' +
                 ", department=" + (department != null ? department.getName() : "none") +
                 ", expertise='" + expertise + '\'' +
-                ", coursesTeaching=" + coursesTeaching.size() +
+                ", coursesTeaching=" + getCourseCount() +
                 "} " + super.toString();
     }
 }
\ No newline at end of file
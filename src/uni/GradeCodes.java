@@ -0,0 +1,131 @@
+package uni;
+
+/**
+ * Compact byte codes for letter grades
+ *
+ * Grades are stored as a byte on the hot path and converted back to the
+ * letter form for persistence and display. Grade points come from a lookup
+ * table indexed by the code.
+ */
+public class GradeCodes {
+    public static final byte UNKNOWN = -1; // Not graded
+    public static final byte OTHER = -2; // Graded, but not with a letter grade, e.g. "P"
+    public static final byte A = 0;
+    public static final byte A_MINUS = 1;
+    public static final byte B_PLUS = 2;
+    public static final byte B = 3;
+    public static final byte B_MINUS = 4;
+    public static final byte C_PLUS = 5;
+    public static final byte C = 6;
+    public static final byte C_MINUS = 7;
+    public static final byte D_PLUS = 8;
+    public static final byte D = 9;
+    public static final byte F = 10;
+
+    private static final String[] NAMES = { "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F" };
+
+    // Grade points in tenths, indexed by code
+    private static final int[] POINT_TENTHS = { 40, 37, 33, 30, 27, 23, 20, 17, 13, 10, 0 };
+
+    private GradeCodes() {
+    }
+
+    /**
+     * Encode a letter grade
+     * 
+     * @param grade Letter grade (may be null)
+     * @return Grade code, UNKNOWN if the grade is null, or OTHER if it is not
+     *         a letter grade
+     */
+    public static byte encode(String grade) {
+        if (grade == null) {
+            return UNKNOWN;
+        }
+        if (grade.isEmpty() || grade.length() > 2) {
+            return OTHER;
+        }
+        byte code;
+        switch (grade.charAt(0)) {
+            case 'A':
+                code = A;
+                break;
+            case 'B':
+                code = B;
+                break;
+            case 'C':
+                code = C;
+                break;
+            case 'D':
+                code = D;
+                break;
+            case 'F':
+                return grade.length() == 1 ? F : OTHER;
+            default:
+                return OTHER;
+        }
+        if (grade.length() == 1) {
+            return code;
+        }
+        switch (grade.charAt(1)) {
+            case '+':
+                return code == A ? OTHER : (byte) (code - 1); // There is no A+
+            case '-':
+                return code == D ? OTHER : (byte) (code + 1); // There is no D-
+            default:
+                return OTHER;
+        }
+    }
+
+    /**
+     * Decode a grade code
+     * 
+     * @param code Grade code
+     * @return Letter grade, or null for UNKNOWN and OTHER
+     */
+    public static String decode(byte code) {
+        return code >= 0 && code < NAMES.length ? NAMES[code] : null;
+    }
+
+    /**
+     * Check if a grade code is a valid letter grade
+     * 
+     * @param code Grade code
+     * @return true if valid, false otherwise
+     */
+    public static boolean isValid(byte code) {
+        return code >= 0 && code < NAMES.length;
+    }
+
+    /**
+     * Check if an enrollment counts towards the GPA. Every completed, graded
+     * enrollment does; a grade that is not a letter grade adds its credit hours
+     * with no grade points.
+     * 
+     * @param statusCode Enrollment status code
+     * @param gradeCode  Grade code
+     * @return true if the enrollment counts, false otherwise
+     */
+    public static boolean countsTowardsGpa(byte statusCode, byte gradeCode) {
+        return statusCode == StatusCodes.COMPLETED && gradeCode != UNKNOWN;
+    }
+
+    /**
+     * Get the grade points of a grade in tenths, e.g. 37 for A-
+     * 
+     * @param code Grade code
+     * @return Grade points times ten, 0 for UNKNOWN and OTHER
+     */
+    public static int pointTenths(byte code) {
+        return isValid(code) ? POINT_TENTHS[code] : 0;
+    }
+
+    /**
+     * Get the grade points of a grade
+     * 
+     * @param code Grade code
+     * @return GPA points, 0.0 for UNKNOWN and OTHER
+     */
+    public static double points(byte code) {
+        return pointTenths(code) / 10.0;
+    }
+}
@@ -0,0 +1,171 @@
+package uni;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Dependency-aware pipeline for loading data at startup
+ *
+ * Each stage runs on a fork-join pool as soon as the stages it depends on have
+ * finished, so independent loaders run concurrently. The time spent in every
+ * stage is recorded for reporting.
+ */
+public class LoadingPipeline {
+    private final ForkJoinPool pool;
+    private final List<Stage<?>> stages = new ArrayList<>();
+    private final Map<String, Long> stageNanos = new ConcurrentHashMap<>();
+    private long totalNanos;
+
+    /**
+     * A named unit of work whose result later stages can read
+     */
+    public static class Stage<T> {
+        private final String name;
+        private final CompletableFuture<T> future;
+
+        private Stage(String name, CompletableFuture<T> future) {
+            this.name = name;
+            this.future = future;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the stage result. Only call this from a stage that depends on this
+         * one, or after {@link LoadingPipeline#await()}.
+         *
+         * @return Result of the stage
+         */
+        public T get() {
+            return future.join();
+        }
+    }
+
+    /**
+     * Constructor for LoadingPipeline class using the common fork-join pool
+     */
+    public LoadingPipeline() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for LoadingPipeline class
+     *
+     * @param pool Pool the stages run on
+     */
+    public LoadingPipeline(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Add a stage. It starts as soon as all of its dependencies have finished.
+     *
+     * @param name      Stage name used in timings
+     * @param task      Work to run
+     * @param dependsOn Stages that must finish first
+     * @return The new stage
+     */
+    public <T> Stage<T> stage(String name, Callable<T> task, Stage<?>... dependsOn) {
+        if (totalNanos == 0) {
+            totalNanos = -System.nanoTime(); // Started by the first stage
+        }
+
+        CompletableFuture<?>[] dependencies = new CompletableFuture<?>[dependsOn.length];
+        for (int i = 0; i < dependsOn.length; i++) {
+            dependencies[i] = dependsOn[i].future;
+        }
+
+        CompletableFuture<T> future = CompletableFuture.allOf(dependencies)
+                .thenApplyAsync(ignored -> runTimed(name, task), pool);
+        Stage<T> stage = new Stage<>(name, future);
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Wait for every stage to finish
+     *
+     * @throws IOException if any stage failed
+     */
+    public void await() throws IOException {
+        try {
+            for (Stage<?> stage : stages) {
+                stage.future.join();
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Loading failed: " + cause.getMessage(), cause);
+        } finally {
+            if (totalNanos < 0) {
+                totalNanos += System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Get the time spent in each stage, in the order the stages were added
+     *
+     * @return Stage name mapped to milliseconds
+     */
+    public Map<String, Double> getStageTimings() {
+        Map<String, Double> timings = new LinkedHashMap<>();
+        for (Stage<?> stage : stages) {
+            Long nanos = stageNanos.get(stage.name);
+            timings.put(stage.name, nanos != null ? nanos / 1e6 : 0.0);
+        }
+        return timings;
+    }
+
+    /**
+     * Get the wall time from the first stage starting to {@link #await()}
+     * returning
+     *
+     * @return Wall time in milliseconds
+     */
+    public double getTotalMillis() {
+        return totalNanos > 0 ? totalNanos / 1e6 : 0.0;
+    }
+
+    /**
+     * Format the stage timings for display
+     *
+     * @return One line per stage followed by the total wall time
+     */
+    public String getTimingReport() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Double> timing : getStageTimings().entrySet()) {
+            report.append(String.format("  %-12s %8.1f ms%n", timing.getKey(), timing.getValue()));
+        }
+        report.append(String.format("  %-12s %8.1f ms%n", "total", getTotalMillis()));
+        return report.toString();
+    }
+
+    private <T> T runTimed(String name, Callable<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            stageNanos.put(name, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package uni;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Fork-join framework for report generation
+ *
+ * The data set is split into partitions (e.g. one per department). Each
+ * partition is aggregated on a fork-join pool and the partial aggregates are
+ * merged pairwise in partition order, so merges that concatenate keep the
+ * input order. The wall time and the time spent on each partition are
+ * recorded for reporting.
+ */
+public class ParallelReport {
+    private ParallelReport() {
+    }
+
+    /**
+     * Merged aggregate together with its timings
+     */
+    public static class Result<A> {
+        private final A value;
+        private final double wallMillis;
+        private final Map<String, Double> partitionMillis;
+
+        private Result(A value, double wallMillis, Map<String, Double> partitionMillis) {
+            this.value = value;
+            this.wallMillis = wallMillis;
+            this.partitionMillis = partitionMillis;
+        }
+
+        public A getValue() {
+            return value;
+        }
+
+        public double getWallMillis() {
+            return wallMillis;
+        }
+
+        public Map<String, Double> getPartitionMillis() {
+            return new LinkedHashMap<>(partitionMillis); // Return a copy to preserve encapsulation
+        }
+
+        /**
+         * Format the partition timings for display
+         *
+         * @return One line per partition followed by the wall time
+         */
+        public String getTimingReport() {
+            StringBuilder report = new StringBuilder();
+            for (Map.Entry<String, Double> timing : partitionMillis.entrySet()) {
+                report.append(String.format("  %-20s %8.1f ms%n", timing.getKey(), timing.getValue()));
+            }
+            report.append(String.format("  %-20s %8.1f ms%n", "wall time", wallMillis));
+            return report.toString();
+        }
+    }
+
+    /**
+     * Aggregate partitions on the common fork-join pool
+     *
+     * @param partitions Partitions of the data set
+     * @param names      Name of each partition used in timings
+     * @param aggregate  Computes the partial aggregate of one partition
+     * @param merge      Combines two partial aggregates, left before right
+     * @param empty      Aggregate returned when there are no partitions
+     * @return Merged aggregate with timings
+     */
+    public static <T, A> Result<A> run(List<T> partitions, Function<T, String> names, Function<T, A> aggregate,
+            BinaryOperator<A> merge, A empty) {
+        return run(ForkJoinPool.commonPool(), partitions, names, aggregate, merge, empty);
+    }
+
+    /**
+     * Aggregate partitions on the given fork-join pool
+     *
+     * @param pool       Pool the partitions run on
+     * @param partitions Partitions of the data set
+     * @param names      Name of each partition used in timings
+     * @param aggregate  Computes the partial aggregate of one partition
+     * @param merge      Combines two partial aggregates, left before right
+     * @param empty      Aggregate returned when there are no partitions
+     * @return Merged aggregate with timings
+     */
+    public static <T, A> Result<A> run(ForkJoinPool pool, List<T> partitions, Function<T, String> names,
+            Function<T, A> aggregate, BinaryOperator<A> merge, A empty) {
+        Map<Integer, Double> timings = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        A value = partitions.isEmpty() ? empty
+                : pool.invoke(new PartitionTask<>(partitions, 0, partitions.size(), aggregate, merge, timings));
+        double wallMillis = (System.nanoTime() - start) / 1e6;
+
+        // Report partitions in input order; number repeated names so none is lost
+        Map<String, Double> partitionMillis = new LinkedHashMap<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            String name = names.apply(partitions.get(i));
+            String key = name;
+            for (int copy = 2; partitionMillis.containsKey(key); copy++) {
+                key = name + " #" + copy;
+            }
+            partitionMillis.put(key, timings.get(i));
+        }
+        return new Result<>(value, wallMillis, partitionMillis);
+    }
+
+    /**
+     * Aggregates a range of partitions by splitting it in half until a
+     * single partition is left
+     */
+    private static class PartitionTask<T, A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<T> partitions;
+        private final int from;
+        private final int to;
+        private final transient Function<T, A> aggregate;
+        private final transient BinaryOperator<A> merge;
+        private final transient Map<Integer, Double> timings;
+
+        private PartitionTask(List<T> partitions, int from, int to, Function<T, A> aggregate,
+                BinaryOperator<A> merge, Map<Integer, Double> timings) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.aggregate = aggregate;
+            this.merge = merge;
+            this.timings = timings;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from == 1) {
+                long start = System.nanoTime();
+                A value = aggregate.apply(partitions.get(from));
+                timings.put(from, (System.nanoTime() - start) / 1e6);
+                return value;
+            }
+
+            int middle = (from + to) >>> 1;
+            PartitionTask<T, A> left = new PartitionTask<>(partitions, from, middle, aggregate, merge, timings);
+            PartitionTask<T, A> right = new PartitionTask<>(partitions, middle, to, aggregate, merge, timings);
+            left.fork();
+            A rightValue = right.compute();
+            return merge.apply(left.join(), rightValue);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package uni;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal with periodic snapshots
+ *
+ * Each mutation appends one record (kind, key and fields) to the journal, so
+ * the cost of a change does not depend on the size of the data set. A
+ * background compactor periodically writes the current state to a snapshot
+ * and starts a fresh journal. On startup the snapshot is loaded and the
+ * journal tail replayed on top of it; a record torn by a crash is skipped.
+ * Records can be streamed to a handler while they are read, see
+ * {@link #load(RecordHandler)}.
+ */
+public class PersistenceJournal {
+    /**
+     * Receives the records of the journal in file order while it is loaded
+     */
+    public interface RecordHandler {
+        /**
+         * Handle one record. Later records for the same kind and key replace
+         * earlier ones.
+         *
+         * @param kind   Record kind
+         * @param key    Key unique within the kind
+         * @param fields Field values, or null if the entry was removed; must not
+         *               be modified
+         */
+        void record(String kind, String key, String[] fields);
+    }
+
+    private static final String PUT = "P";
+    private static final String REMOVE = "R";
+    private static final long DEFAULT_COMPACT_INTERVAL_MS = 60000;
+    private static final int DEFAULT_COMPACT_THRESHOLD = 10000;
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Path compactingFile;
+    private final int compactThreshold;
+    private final long compactIntervalMs;
+    private final Object lock = new Object();
+    private final Object compactLock = new Object();
+    private final ScheduledExecutorService compactor;
+
+    // Current state: kind -> key -> fields
+    private final Map<String, Map<String, String[]>> state = new LinkedHashMap<>();
+    private OutputStream journal; // Null until loaded
+    private int recordsSinceSnapshot;
+    private boolean closed;
+
+    /**
+     * Constructor for PersistenceJournal class with default compaction settings
+     *
+     * @param directory Directory holding the snapshot and journal files
+     * @param name      Base name of the files
+     * @throws IOException if the directory cannot be created
+     */
+    public PersistenceJournal(Path directory, String name) throws IOException {
+        this(directory, name, DEFAULT_COMPACT_THRESHOLD, DEFAULT_COMPACT_INTERVAL_MS);
+    }
+
+    /**
+     * Constructor for PersistenceJournal class. Nothing is read until the
+     * journal is loaded.
+     *
+     * @param directory         Directory holding the snapshot and journal files
+     * @param name              Base name of the files
+     * @param compactThreshold  Journal records that make a compaction worthwhile
+     * @param compactIntervalMs How often the compactor checks the threshold
+     * @throws IOException if the directory cannot be created
+     */
+    public PersistenceJournal(Path directory, String name, int compactThreshold, long compactIntervalMs)
+            throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotFile = directory.resolve(name + ".snapshot");
+        this.journalFile = directory.resolve(name + ".journal");
+        this.compactingFile = directory.resolve(name + ".journal.compacting");
+        this.compactThreshold = compactThreshold;
+        this.compactIntervalMs = compactIntervalMs;
+
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-compactor-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the snapshot and replay the journal tail, passing every record to
+     * the handler as soon as it is read, so the caller can build its objects
+     * while the rest of the files are still being read. If the journal is
+     * already loaded, its current entries are passed instead. The first read
+     * or write loads the journal if nobody did before.
+     *
+     * @param handler Receives the records; may be null
+     * @throws IOException if existing data cannot be loaded
+     */
+    public void load(RecordHandler handler) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Journal is closed");
+            }
+            if (journal != null) {
+                if (handler != null) {
+                    for (Map.Entry<String, Map<String, String[]>> kind : state.entrySet()) {
+                        for (Map.Entry<String, String[]> entry : kind.getValue().entrySet()) {
+                            handler.record(kind.getKey(), entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+                return;
+            }
+
+            state.clear(); // A previous attempt may have failed halfway
+            recordsSinceSnapshot = 0;
+            replay(snapshotFile, handler);
+            replay(compactingFile, handler); // Left behind if a compaction was interrupted
+            replay(journalFile, handler);
+            RecordCodec.terminateTornLine(journalFile);
+            journal = openJournal();
+        }
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, compactIntervalMs, compactIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record the current value of an entry
+     *
+     * @param kind   Record kind (e.g. "user")
+     * @param key    Key unique within the kind
+     * @param fields Field values; null values are allowed
+     * @throws IOException if the record cannot be appended
+     */
+    public void put(String kind, String key, String... fields) throws IOException {
+        ensureLoaded();
+        append(PUT, kind, key, fields.clone());
+    }
+
+    /**
+     * Record the current values of several entries of one kind with a single
+     * durable write
+     *
+     * @param kind    Record kind
+     * @param entries Field values by key; null values are allowed
+     * @throws IOException if the records cannot be appended
+     */
+    public void putAll(String kind, Map<String, String[]> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return; // Nothing to write
+        }
+        ensureLoaded();
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, String[]> entry : entries.entrySet()) {
+            lines.append(encode(PUT, kind, entry.getKey(), entry.getValue())).append('\n');
+        }
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Journal is closed");
+            }
+            journal.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            journal.flush();
+            for (Map.Entry<String, String[]> entry : entries.entrySet()) {
+                apply(PUT, kind, entry.getKey(), entry.getValue().clone());
+                recordsSinceSnapshot++;
+            }
+        }
+    }
+
+    /**
+     * Record the removal of an entry
+     *
+     * @param kind Record kind
+     * @param key  Key unique within the kind
+     * @throws IOException if the record cannot be appended
+     */
+    public void remove(String kind, String key) throws IOException {
+        ensureLoaded();
+        append(REMOVE, kind, key, null);
+    }
+
+    /**
+     * Get the current entries of a kind in insertion order
+     *
+     * @param kind Record kind
+     * @return List of field arrays
+     * @throws IOException if existing data cannot be loaded
+     */
+    public List<String[]> getAll(String kind) throws IOException {
+        ensureLoaded();
+        synchronized (lock) {
+            Map<String, String[]> entries = state.get(kind);
+            return entries != null ? new ArrayList<>(entries.values()) : new ArrayList<>();
+        }
+    }
+
+    /**
+     * Write a snapshot of the current state and start a new journal
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void compact() throws IOException {
+        ensureLoaded();
+        synchronized (compactLock) {
+            List<String> lines = new ArrayList<>();
+
+            synchronized (lock) {
+                if (!Files.exists(compactingFile)) {
+                    journal.close();
+                    Files.move(journalFile, compactingFile, StandardCopyOption.REPLACE_EXISTING);
+                    journal = openJournal();
+                }
+                recordsSinceSnapshot = 0;
+
+                for (Map.Entry<String, Map<String, String[]>> kind : state.entrySet()) {
+                    for (Map.Entry<String, String[]> entry : kind.getValue().entrySet()) {
+                        lines.add(encode(PUT, kind.getKey(), entry.getKey(), entry.getValue()));
+                    }
+                }
+            }
+
+            // Write the snapshot beside the old one and swap it in atomically
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(compactingFile);
+        }
+    }
+
+    /**
+     * Compact one last time and stop the background compactor
+     *
+     * @throws IOException if the final compaction fails
+     */
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (journal == null) {
+                compactor.shutdownNow();
+                return; // Never loaded, so nothing changed
+            }
+        }
+        compactor.shutdownNow();
+        compact();
+        synchronized (lock) {
+            journal.close();
+        }
+    }
+
+    private void append(String op, String kind, String key, String[] fields) throws IOException {
+        String line = encode(op, kind, key, fields) + "\n";
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Journal is closed");
+            }
+            journal.write(line.getBytes(StandardCharsets.UTF_8));
+            journal.flush();
+            apply(op, kind, key, fields);
+            recordsSinceSnapshot++;
+        }
+    }
+
+    private void ensureLoaded() throws IOException {
+        synchronized (lock) {
+            if (journal != null) {
+                return;
+            }
+        }
+        load(null);
+    }
+
+    private void apply(String op, String kind, String key, String[] fields) {
+        if (op.equals(PUT)) {
+            state.computeIfAbsent(kind, k -> new LinkedHashMap<>()).put(key, fields);
+        } else {
+            Map<String, String[]> entries = state.get(kind);
+            if (entries != null) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    private void compactIfNeeded() {
+        boolean needed;
+        synchronized (lock) {
+            needed = recordsSinceSnapshot >= compactThreshold;
+        }
+        if (needed) {
+            try {
+                compact();
+            } catch (IOException e) {
+                System.err.println("Error compacting journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private void replay(Path file, RecordHandler handler) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = RecordCodec.decode(line);
+                if (parts == null || parts.length < 3 || parts[1] == null || parts[2] == null
+                        || !(PUT.equals(parts[0]) || REMOVE.equals(parts[0]) && parts.length == 3)) {
+                    System.err.println("Skipping unreadable journal line: " + line);
+                    continue; // Torn by a crash or not a journal record
+                }
+                String[] fields = Arrays.copyOfRange(parts, 3, parts.length);
+                apply(parts[0], parts[1], parts[2], fields);
+                recordsSinceSnapshot++;
+                if (handler != null) {
+                    handler.record(parts[1], parts[2], PUT.equals(parts[0]) ? fields : null);
+                }
+            }
+        }
+    }
+
+    private OutputStream openJournal() throws IOException {
+        return Files.newOutputStream(journalFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                StandardOpenOption.DSYNC);
+    }
+
+    /**
+     * Encode a record as one line in the {@link RecordCodec} format
+     */
+    private static String encode(String op, String kind, String key, String[] fields) {
+        int count = fields != null ? fields.length : 0;
+        String[] parts = new String[3 + count];
+        parts[0] = op;
+        parts[1] = kind;
+        parts[2] = key;
+        if (fields != null) {
+            System.arraycopy(fields, 0, parts, 3, count);
+        }
+        return RecordCodec.encode(parts);
+    }
+}
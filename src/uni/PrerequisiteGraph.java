@@ -0,0 +1,268 @@
+package uni;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prerequisite graph of one catalog with a precomputed transitive closure
+ *
+ * Every course gets a dense ordinal when it is registered. For each ordinal
+ * the graph keeps the direct prerequisites, all ancestors (direct and
+ * indirect prerequisites) and all dependents as bitsets, so ancestor queries
+ * are a single bit test. The closure is updated incrementally when an edge is
+ * added or removed.
+ *
+ * Each loaded catalog owns its own graph (see {@link UniversityData}), so a
+ * reload starts from a fresh graph and the old one is reclaimed together with
+ * the old courses. Edges are reference counted: two course objects with the
+ * same ID in one catalog may each hold the same prerequisite, and the edge
+ * stays until both have removed it.
+ */
+public class PrerequisiteGraph {
+    private static PrerequisiteGraph instance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<BitSet> direct = new ArrayList<>();
+    private final List<BitSet> ancestors = new ArrayList<>();
+    private final List<BitSet> dependents = new ArrayList<>();
+    private final Map<Long, Integer> edgeCounts = new HashMap<>(); // Courses holding each edge
+    private long version;
+
+    /**
+     * Constructor for PrerequisiteGraph class, for a new catalog
+     */
+    public PrerequisiteGraph() {
+    }
+
+    /**
+     * Get the graph shared by courses created without a catalog
+     * 
+     * @return Default PrerequisiteGraph instance
+     */
+    public static synchronized PrerequisiteGraph getInstance() {
+        if (instance == null) {
+            instance = new PrerequisiteGraph();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the ordinal of a course ID, assigning the next free one if the ID is
+     * new. Courses with the same ID share an ordinal.
+     * 
+     * @param courseId Course ID
+     * @return Dense course ordinal
+     */
+    public int register(String courseId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(courseId);
+            if (ordinal == null) {
+                ordinal = direct.size();
+                ordinals.put(courseId, ordinal);
+                direct.add(new BitSet());
+                ancestors.add(new BitSet());
+                dependents.add(new BitSet());
+            }
+            return ordinal;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a prerequisite edge
+     * 
+     * @param course       Ordinal of the dependent course
+     * @param prerequisite Ordinal of the prerequisite course
+     * @return true if the edge was added or referenced again, false if it would create a cycle
+     */
+    public boolean addEdge(int course, int prerequisite) {
+        lock.writeLock().lock();
+        try {
+            if (course == prerequisite || ancestors.get(prerequisite).get(course)) {
+                return false; // Circular dependency detected
+            }
+            if (edgeCounts.merge(edgeKey(course, prerequisite), 1, Integer::sum) > 1) {
+                return true; // Already a prerequisite through another course object
+            }
+            direct.get(course).set(prerequisite);
+
+            // Everything at or above the prerequisite is now an ancestor of the
+            // course and of everything that depends on it
+            BitSet gained = (BitSet) ancestors.get(prerequisite).clone();
+            gained.set(prerequisite);
+            BitSet affected = (BitSet) dependents.get(course).clone();
+            affected.set(course);
+
+            for (int i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+                ancestors.get(i).or(gained);
+            }
+            for (int i = gained.nextSetBit(0); i >= 0; i = gained.nextSetBit(i + 1)) {
+                dependents.get(i).or(affected);
+            }
+            version++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a prerequisite edge
+     * 
+     * @param course       Ordinal of the dependent course
+     * @param prerequisite Ordinal of the prerequisite course
+     * @return true if the edge existed, false otherwise
+     */
+    public boolean removeEdge(int course, int prerequisite) {
+        lock.writeLock().lock();
+        try {
+            long key = edgeKey(course, prerequisite);
+            Integer count = edgeCounts.get(key);
+            if (count == null) {
+                return false;
+            }
+            if (count > 1) {
+                edgeCounts.put(key, count - 1);
+                return true; // Still held by another course object
+            }
+            edgeCounts.remove(key);
+            direct.get(course).clear(prerequisite);
+
+            // Only the course and its dependents can lose ancestors
+            BitSet affected = (BitSet) dependents.get(course).clone();
+            affected.set(course);
+
+            BitSet oldAncestors = new BitSet();
+            for (int i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+                oldAncestors.or(ancestors.get(i));
+                ancestors.get(i).clear();
+            }
+            BitSet recomputed = new BitSet();
+            for (int i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+                recomputeAncestors(i, affected, recomputed);
+            }
+
+            // Rebuild the dependents of every former ancestor from the new closure
+            for (int i = oldAncestors.nextSetBit(0); i >= 0; i = oldAncestors.nextSetBit(i + 1)) {
+                dependents.get(i).andNot(affected);
+            }
+            for (int i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+                BitSet courseAncestors = ancestors.get(i);
+                for (int a = courseAncestors.nextSetBit(0); a >= 0; a = courseAncestors.nextSetBit(a + 1)) {
+                    dependents.get(a).set(i);
+                }
+            }
+            version++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Check if one course is a direct or indirect prerequisite of another
+     * 
+     * @param course       Ordinal of the dependent course
+     * @param prerequisite Ordinal of the possible prerequisite
+     * @return true if prerequisite is an ancestor of course, false otherwise
+     */
+    public boolean isAncestor(int course, int prerequisite) {
+        lock.readLock().lock();
+        try {
+            return ancestors.get(course).get(prerequisite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the direct prerequisites of a course
+     * 
+     * @param course Course ordinal
+     * @return Bitset of prerequisite ordinals
+     */
+    public BitSet getDirectPrerequisites(int course) {
+        lock.readLock().lock();
+        try {
+            return (BitSet) direct.get(course).clone(); // Return a copy to preserve encapsulation
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get all direct and indirect prerequisites of a course
+     * 
+     * @param course Course ordinal
+     * @return Bitset of ancestor ordinals
+     */
+    public BitSet getAncestors(int course) {
+        lock.readLock().lock();
+        try {
+            return (BitSet) ancestors.get(course).clone(); // Return a copy to preserve encapsulation
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of registered courses
+     * 
+     * @return Number of ordinals handed out
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return direct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a counter that changes whenever an edge is added or removed, so
+     * callers can tell when cached results derived from the graph are stale
+     * 
+     * @return Graph version
+     */
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long edgeKey(int course, int prerequisite) {
+        return ((long) course << 32) | prerequisite;
+    }
+
+    /**
+     * Rebuild the ancestors of an affected course from its direct
+     * prerequisites, recomputing affected prerequisites first
+     */
+    private void recomputeAncestors(int course, BitSet affected, BitSet recomputed) {
+        if (recomputed.get(course)) {
+            return;
+        }
+        BitSet courseAncestors = ancestors.get(course);
+        BitSet prerequisites = direct.get(course);
+        for (int p = prerequisites.nextSetBit(0); p >= 0; p = prerequisites.nextSetBit(p + 1)) {
+            if (affected.get(p)) {
+                recomputeAncestors(p, affected, recomputed);
+            }
+            courseAncestors.set(p);
+            courseAncestors.or(ancestors.get(p));
+        }
+        recomputed.set(course);
+    }
+}
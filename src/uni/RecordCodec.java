@@ -0,0 +1,145 @@
+package uni;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line format shared by the persistence journal and the enrollment log
+ *
+ * Fields are tab-separated. Tabs, newlines and backslashes inside values are
+ * escaped, null is written as \N, and every line ends with \E, so a line cut
+ * short by a crash can be told apart from a complete one.
+ */
+final class RecordCodec {
+    private static final String NULL_FIELD = "\\N";
+    private static final String END = "\\E";
+
+    private RecordCodec() {
+    }
+
+    /**
+     * Encode fields as one line
+     *
+     * @param fields Field values; null values are allowed
+     * @return Encoded line without a line terminator
+     */
+    static String encode(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            if (fields[i] == null) {
+                line.append(NULL_FIELD);
+            } else {
+                escape(fields[i], line);
+            }
+        }
+        return line.append(END).toString();
+    }
+
+    /**
+     * Decode a line produced by {@link #encode(String...)}
+     *
+     * @param line Line without its terminator
+     * @return Field values, or null if the line is torn or malformed
+     */
+    static String[] decode(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean isNull = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(isNull ? null : current.toString());
+                current.setLength(0);
+                isNull = false;
+            } else if (c != '\\') {
+                current.append(c);
+            } else if (++i == line.length()) {
+                return null; // Cut off inside an escape
+            } else {
+                switch (line.charAt(i)) {
+                    case 'E':
+                        if (i + 1 != line.length()) {
+                            return null; // End marker in the middle of the line
+                        }
+                        fields.add(isNull ? null : current.toString());
+                        return fields.toArray(new String[0]);
+                    case 'N':
+                        isNull = true;
+                        break;
+                    case 't':
+                        current.append('\t');
+                        break;
+                    case 'n':
+                        current.append('\n');
+                        break;
+                    case 'r':
+                        current.append('\r');
+                        break;
+                    case '\\':
+                        current.append('\\');
+                        break;
+                    default:
+                        return null; // Unknown escape
+                }
+            }
+        }
+        return null; // No end marker, the write was torn
+    }
+
+    /**
+     * End a line torn by a crash, so a record appended to the file starts on a
+     * line of its own
+     *
+     * @param file File to check; nothing happens if it does not exist
+     * @throws IOException if the file cannot be read or extended
+     */
+    static void terminateTornLine(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                return; // Empty file
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(size - 1).read(last);
+            if (last.get(0) != '\n') {
+                channel.position(size).write(ByteBuffer.wrap(new byte[] { '\n' }));
+            }
+        }
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package uni;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming aggregation for the administrative reports
+ *
+ * Students and offerings are fed in one at a time and folded into running
+ * totals for all report families at once: the enrollment summary, the
+ * faculty workload and the student performance report. Nothing is collected
+ * per student or per enrollment, so memory is bounded by the number of
+ * faculty members rather than by the size of the data set.
+ */
+public class ReportAggregator {
+    public static final String ENROLLMENT_SUMMARY = "EnrollmentSummary";
+    public static final String FACULTY_WORKLOAD = "FacultyWorkload";
+    public static final String STUDENT_PERFORMANCE = "StudentPerformance";
+
+    private static final double HONORS_GPA = 3.5;
+    private static final double AT_RISK_GPA = 2.0;
+    private static final String[] GPA_BANDS = { "0.0 - 0.9", "1.0 - 1.9", "2.0 - 2.9", "3.0 - 4.0" };
+
+    // Enrollment summary
+    private int offerings;
+    private long seats;
+    private long enrolledSeats;
+    private final long[] enrollmentsByStatus = new long[3];
+    private final long[] gradeCounts = new long[GradeCodes.F + 1];
+
+    // Faculty workload, keyed by faculty ID
+    private final Map<String, Workload> workloads = new LinkedHashMap<>();
+    private int unassignedOfferings;
+
+    // Student performance
+    private int students;
+    private final int[] studentsByAcademicStatus = new int[3];
+    private int gradedStudents;
+    private double gpaSum;
+    private double minGpa = Double.MAX_VALUE;
+    private double maxGpa;
+    private final int[] gpaBands = new int[GPA_BANDS.length];
+    private int honorsStudents;
+    private int atRiskStudents;
+
+    /**
+     * Running totals for one faculty member
+     */
+    private static class Workload {
+        private final String name;
+        private int offerings;
+        private int creditHours;
+        private int students;
+        private boolean fromTotals; // Taken from the faculty's running totals
+
+        private Workload(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Aggregate a full data set in one pass over students and offerings. The
+     * workload of each instructor met along the way comes from their running
+     * totals.
+     * 
+     * @param students  Students to include
+     * @param offerings Offerings to include, together with their enrollments
+     * @return Aggregated totals
+     */
+    public static ReportAggregator aggregate(Iterable<Student> students, Iterable<CourseOffering> offerings) {
+        ReportAggregator aggregator = new ReportAggregator();
+        for (Student student : students) {
+            aggregator.accept(student);
+        }
+        Set<Faculty> instructors = new HashSet<>();
+        for (CourseOffering offering : offerings) {
+            Faculty faculty = offering.getFaculty();
+            if (faculty != null && instructors.add(faculty)) {
+                aggregator.accept(faculty);
+            }
+            aggregator.accept(offering);
+        }
+        return aggregator;
+    }
+
+    /**
+     * Fold a student into the performance totals
+     * 
+     * @param student Student to add
+     */
+    public void accept(Student student) {
+        students++;
+        studentsByAcademicStatus[student.getAcademicStatusCode()]++;
+
+        if (student.getGpaCredits() == 0) {
+            return; // No graded courses yet
+        }
+        double gpa = student.calculateGPA();
+        gradedStudents++;
+        gpaSum += gpa;
+        minGpa = Math.min(minGpa, gpa);
+        maxGpa = Math.max(maxGpa, gpa);
+        gpaBands[Math.min((int) gpa, GPA_BANDS.length - 1)]++;
+        if (gpa >= HONORS_GPA) {
+            honorsStudents++;
+        } else if (gpa < AT_RISK_GPA) {
+            atRiskStudents++;
+        }
+    }
+
+    /**
+     * Fold an offering and its enrollments into the enrollment and workload
+     * totals
+     * 
+     * @param offering Offering to add
+     */
+    public void accept(CourseOffering offering) {
+        int enrolled = 0;
+        for (Enrollment enrollment : offering.getEnrollments()) {
+            byte status = enrollment.getStatusCode();
+            enrollmentsByStatus[status]++;
+            if (status == StatusCodes.ENROLLED) {
+                enrolled++;
+            } else if (status == StatusCodes.COMPLETED && GradeCodes.isValid(enrollment.getGradeCode())) {
+                gradeCounts[enrollment.getGradeCode()]++;
+            }
+        }
+
+        offerings++;
+        seats += offering.getCourse().getMaxCapacity();
+        enrolledSeats += enrolled;
+
+        Faculty faculty = offering.getFaculty();
+        if (faculty == null) {
+            unassignedOfferings++;
+            return;
+        }
+        Workload workload = workloads.computeIfAbsent(faculty.getFacultyId(), id -> new Workload(faculty.getName()));
+        if (workload.fromTotals) {
+            return; // Already counted from the faculty member
+        }
+        workload.offerings++;
+        workload.creditHours += offering.getCourse().getCreditHours();
+        workload.students += enrolled;
+    }
+
+    /**
+     * Take a faculty member's workload from their running totals in constant
+     * time, replacing anything counted from their offerings
+     * 
+     * @param faculty Faculty member to add
+     */
+    public void accept(Faculty faculty) {
+        if (faculty.getCourseCount() == 0) {
+            return; // Not teaching
+        }
+        Workload workload = new Workload(faculty.getName());
+        workload.offerings = faculty.getCourseCount();
+        workload.creditHours = faculty.getCreditHours();
+        workload.students = faculty.getStudentsTaught();
+        workload.fromTotals = true;
+        workloads.put(faculty.getFacultyId(), workload);
+    }
+
+    /**
+     * Format one report family
+     * 
+     * @param reportType  "EnrollmentSummary", "FacultyWorkload" or "StudentPerformance"
+     * @param generatedBy Name printed in the report header
+     * @return Report content as a string
+     */
+    public String format(String reportType, String generatedBy) {
+        StringBuilder report = new StringBuilder();
+
+        switch (reportType) {
+            case ENROLLMENT_SUMMARY:
+                appendHeader(report, "Enrollment Summary Report", generatedBy);
+                appendEnrollmentSummary(report);
+                break;
+
+            case FACULTY_WORKLOAD:
+                appendHeader(report, "Faculty Workload Report", generatedBy);
+                appendFacultyWorkload(report);
+                break;
+
+            case STUDENT_PERFORMANCE:
+                appendHeader(report, "Student Performance Report", generatedBy);
+                appendStudentPerformance(report);
+                break;
+
+            default:
+                report.append("Unknown report type: ").append(reportType);
+        }
+
+        return report.toString();
+    }
+
+    private void appendHeader(StringBuilder report, String title, String generatedBy) {
+        report.append("=== ").append(title).append(" ===\n");
+        report.append("Generated by: ").append(generatedBy).append("\n");
+        report.append("Date: ").append(LocalDate.now()).append("\n");
+    }
+
+    private void appendEnrollmentSummary(StringBuilder report) {
+        long total = enrollmentsByStatus[0] + enrollmentsByStatus[1] + enrollmentsByStatus[2];
+        report.append("Course offerings: ").append(offerings).append("\n");
+        report.append("Total enrollments: ").append(total).append("\n");
+        for (byte status = 0; status < enrollmentsByStatus.length; status++) {
+            report.append("- ").append(StatusCodes.decodeEnrollmentStatus(status)).append(": ")
+                    .append(enrollmentsByStatus[status]).append(" (").append(percent(enrollmentsByStatus[status], total))
+                    .append(")\n");
+        }
+        report.append("Seats filled: ").append(enrolledSeats).append(" of ").append(seats)
+                .append(" (").append(percent(enrolledSeats, seats)).append(")\n");
+
+        long graded = 0;
+        for (long count : gradeCounts) {
+            graded += count;
+        }
+        if (graded > 0) {
+            report.append("Grade distribution:\n");
+            for (byte grade = 0; grade < gradeCounts.length; grade++) {
+                report.append(String.format("  %-3s %d (%s)%n", GradeCodes.decode(grade), gradeCounts[grade],
+                        percent(gradeCounts[grade], graded)));
+            }
+        }
+    }
+
+    private void appendFacultyWorkload(StringBuilder report) {
+        report.append("Faculty teaching: ").append(workloads.size()).append("\n");
+        report.append("Unassigned offerings: ").append(unassignedOfferings).append("\n");
+        if (workloads.isEmpty()) {
+            return;
+        }
+        report.append(String.format("%-12s %-25s %-10s %-8s %-8s%n", "Faculty ID", "Name", "Offerings", "Credits",
+                "Students"));
+        for (Map.Entry<String, Workload> entry : workloads.entrySet()) {
+            Workload workload = entry.getValue();
+            report.append(String.format("%-12s %-25s %-10d %-8d %-8d%n", entry.getKey(), workload.name,
+                    workload.offerings, workload.creditHours, workload.students));
+        }
+    }
+
+    private void appendStudentPerformance(StringBuilder report) {
+        report.append("Total students: ").append(students).append("\n");
+        for (byte status = 0; status < studentsByAcademicStatus.length; status++) {
+            report.append("- ").append(StatusCodes.decodeAcademicStatus(status)).append(": ")
+                    .append(studentsByAcademicStatus[status]).append("\n");
+        }
+        if (gradedStudents == 0) {
+            report.append("No graded students yet\n");
+            return;
+        }
+        report.append("Students with a GPA: ").append(gradedStudents).append("\n");
+        report.append(String.format("Average GPA: %.2f (min %.2f, max %.2f)%n", gpaSum / gradedStudents, minGpa,
+                maxGpa));
+        report.append("GPA distribution:\n");
+        for (int band = 0; band < GPA_BANDS.length; band++) {
+            report.append("  ").append(GPA_BANDS[band]).append(": ").append(gpaBands[band]).append("\n");
+        }
+        report.append("Honors (GPA >= ").append(HONORS_GPA).append("): ").append(honorsStudents).append("\n");
+        report.append("At risk (GPA < ").append(AT_RISK_GPA).append("): ").append(atRiskStudents).append("\n");
+    }
+
+    private static String percent(long part, long whole) {
+        return String.format("%.1f%%", whole > 0 ? (double) part / whole * 100 : 0.0);
+    }
+}
@@ -0,0 +1,253 @@
+package uni;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Materialized views behind the administrator report screens
+ *
+ * The views hold the numbers the reports print (students per academic
+ * status, enrolled students per course offering and faculty and course counts
+ * per department) and are updated as students, enrollments and departments
+ * change, so reading them never rescans the underlying data. Tracked
+ * students and departments report their changes back to the views; user
+ * additions and removals arrive through {@link UserDirectory.Listener}.
+ * Student changes are reported under the student's lock, which is also held
+ * while a student is tracked or untracked, so no change is counted twice.
+ */
+public class ReportViews implements UserDirectory.Listener {
+    // Offerings by course ID, then term; course, semester and year never change
+    private static final Comparator<CourseOffering> OFFERING_ORDER = Comparator
+            .comparing((CourseOffering offering) -> offering.getCourse().getCourseId())
+            .thenComparingInt(CourseOffering::getYear)
+            .thenComparing(CourseOffering::getSemester)
+            .thenComparingInt(CourseOffering::getOfferingId);
+
+    private final AtomicIntegerArray studentsByStatus = new AtomicIntegerArray(3);
+    private final AtomicInteger studentCount = new AtomicInteger();
+    private final Map<CourseOffering, OfferingView> offerings = new ConcurrentSkipListMap<>(OFFERING_ORDER);
+    private final Map<String, DepartmentView> departments = new ConcurrentSkipListMap<>(); // Keyed by department ID
+
+    /**
+     * Live enrolled count of one course offering
+     */
+    private static class OfferingView {
+        private final CourseOffering offering;
+        private final AtomicInteger enrolled = new AtomicInteger();
+
+        private OfferingView(CourseOffering offering) {
+            this.offering = offering;
+        }
+    }
+
+    /**
+     * Live counts of one department
+     */
+    private static class DepartmentView {
+        private final Department department;
+        private final AtomicInteger faculty = new AtomicInteger();
+        private final AtomicInteger courses = new AtomicInteger();
+
+        private DepartmentView(Department department) {
+            this.department = department;
+        }
+    }
+
+    /**
+     * Faculty and course counts of one department
+     */
+    public static class DepartmentSummary {
+        private final Department department;
+        private final int facultyCount;
+        private final int courseCount;
+
+        private DepartmentSummary(Department department, int facultyCount, int courseCount) {
+            this.department = department;
+            this.facultyCount = facultyCount;
+            this.courseCount = courseCount;
+        }
+
+        public Department getDepartment() {
+            return department;
+        }
+
+        public int getFacultyCount() {
+            return facultyCount;
+        }
+
+        public int getCourseCount() {
+            return courseCount;
+        }
+    }
+
+    /**
+     * Start counting a student and the student's current enrollments
+     *
+     * @param student Student to track
+     * @return true if tracking started, false if the student is already tracked
+     */
+    public boolean trackStudent(Student student) {
+        synchronized (student) {
+            if (student.getReportViews() != null) {
+                return false; // Already tracked
+            }
+            student.setReportViews(this);
+            studentsByStatus.incrementAndGet(student.getAcademicStatusCode());
+            studentCount.incrementAndGet();
+            for (Enrollment enrollment : student.getEnrollments()) {
+                onEnrollmentStatusChanged(enrollment.getCourseOffering(), StatusCodes.UNKNOWN,
+                        enrollment.getStatusCode());
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stop counting a student and the student's current enrollments
+     *
+     * @param student Student to forget
+     * @return true if the student was tracked by these views, false otherwise
+     */
+    public boolean untrackStudent(Student student) {
+        synchronized (student) {
+            if (student.getReportViews() != this) {
+                return false; // Not tracked here
+            }
+            student.setReportViews(null);
+            studentsByStatus.decrementAndGet(student.getAcademicStatusCode());
+            studentCount.decrementAndGet();
+            for (Enrollment enrollment : student.getEnrollments()) {
+                onEnrollmentStatusChanged(enrollment.getCourseOffering(), enrollment.getStatusCode(),
+                        StatusCodes.UNKNOWN);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Include a course offering in the course registration view before any
+     * student enrolls in it
+     *
+     * @param offering Course offering to track
+     */
+    public void trackOffering(CourseOffering offering) {
+        offerings.computeIfAbsent(offering, key -> new OfferingView(offering));
+    }
+
+    /**
+     * Start summarizing a department. Holds the department's lock, which its
+     * member changes also take, so a change is counted exactly once.
+     *
+     * @param department Department to track
+     * @return true if tracking started, false if the department is already tracked
+     */
+    public boolean trackDepartment(Department department) {
+        synchronized (department) {
+            if (department.getReportViews() != null) {
+                return false; // Already tracked
+            }
+            department.setReportViews(this);
+            onDepartmentChanged(department, department.getFaculty().size(), department.getOfferedCourses().size());
+            return true;
+        }
+    }
+
+    @Override
+    public void userAdded(User user) {
+        if (user instanceof Student) {
+            trackStudent((Student) user);
+        }
+    }
+
+    @Override
+    public void userRemoved(User user) {
+        if (user instanceof Student) {
+            untrackStudent((Student) user);
+        }
+    }
+
+    // Views
+    public int getStudentCount() {
+        return studentCount.get();
+    }
+
+    /**
+     * Get the number of students per academic status
+     *
+     * @return Counts indexed by academic status code (Active, On Probation, Graduated)
+     */
+    public int[] getAcademicStatusCounts() {
+        int[] counts = new int[studentsByStatus.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = studentsByStatus.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Get the enrolled count of every tracked course offering, ordered by
+     * course ID and then by term
+     *
+     * @return One entry per course offering
+     */
+    public List<UniversityReports.CourseFill> getCourseFills() {
+        List<UniversityReports.CourseFill> fills = new ArrayList<>(offerings.size());
+        for (OfferingView view : offerings.values()) {
+            fills.add(new UniversityReports.CourseFill(view.offering, view.enrolled.get()));
+        }
+        return fills;
+    }
+
+    /**
+     * Get the counts of every tracked department, ordered by department ID
+     *
+     * @return One summary per department
+     */
+    public List<DepartmentSummary> getDepartmentSummaries() {
+        List<DepartmentSummary> summaries = new ArrayList<>(departments.size());
+        for (DepartmentView view : departments.values()) {
+            summaries.add(new DepartmentSummary(view.department, view.faculty.get(), view.courses.get()));
+        }
+        return summaries;
+    }
+
+    /**
+     * Move a tracked student between academic status counts
+     */
+    void onAcademicStatusChanged(byte oldStatus, byte newStatus) {
+        studentsByStatus.decrementAndGet(oldStatus);
+        studentsByStatus.incrementAndGet(newStatus);
+    }
+
+    /**
+     * Adjust the enrolled count of a course offering when an enrollment of a
+     * tracked student enters or leaves "Enrolled". The caller holds the
+     * student's lock.
+     *
+     * @param offering  Course offering of the enrollment
+     * @param oldStatus Previous status code, UNKNOWN for a new enrollment
+     * @param newStatus New status code, UNKNOWN for an enrollment no longer counted
+     */
+    void onEnrollmentStatusChanged(CourseOffering offering, byte oldStatus, byte newStatus) {
+        int delta = (newStatus == StatusCodes.ENROLLED ? 1 : 0) - (oldStatus == StatusCodes.ENROLLED ? 1 : 0);
+        if (delta != 0) {
+            offerings.computeIfAbsent(offering, key -> new OfferingView(offering)).enrolled.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Adjust the counts of a tracked department. The caller holds the
+     * department's lock.
+     */
+    void onDepartmentChanged(Department department, int facultyDelta, int courseDelta) {
+        DepartmentView view = departments.computeIfAbsent(department.getDepartmentId(),
+                id -> new DepartmentView(department));
+        view.faculty.addAndGet(facultyDelta);
+        view.courses.addAndGet(courseDelta);
+    }
+}
@@ -0,0 +1,47 @@
+package uni;
+
+/**
+ * Room class for teaching spaces available to the scheduler
+ */
+public class Room {
+    private String roomId;
+    private int capacity;
+
+    /**
+     * Constructor for Room class
+     * 
+     * @param roomId   Room name, used as the schedule location
+     * @param capacity Number of seats
+     */
+    public Room(String roomId, int capacity) {
+        if (roomId == null || roomId.isEmpty()) {
+            throw new IllegalArgumentException("Room ID cannot be empty");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.roomId = roomId;
+        this.capacity = capacity;
+    }
+
+    // Getters and setters
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String toString() {
+        return roomId + " (" + capacity + " seats)";
+    }
+}
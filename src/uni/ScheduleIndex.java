@@ -0,0 +1,187 @@
+package uni;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interval index of schedules per resource
+ *
+ * Each resource (a room, an instructor, a student) has a timeline of
+ * non-overlapping meeting times keyed by their start minute of the week, so
+ * an overlap query is a single floor lookup in a balanced tree. Intervals
+ * are closed, matching {@link CourseSchedule#conflictsWith(CourseSchedule)}:
+ * a meeting that starts when another ends still conflicts.
+ *
+ * @param <K> Resource key type
+ */
+public class ScheduleIndex<K> {
+    private final Map<K, Timeline> timelines = new ConcurrentHashMap<>();
+
+    /**
+     * Non-overlapping schedules of a single resource
+     */
+    public static class Timeline {
+        private final TreeMap<Integer, Slot> slots = new TreeMap<>(); // Keyed by start minute of the week
+        private final List<CourseSchedule> unplaced = new ArrayList<>(); // Days not on the week, checked by text
+
+        /**
+         * Schedule together with the times it was indexed under, so later
+         * changes to the schedule cannot corrupt the tree
+         */
+        private static class Slot {
+            private final int start;
+            private final int end;
+            private final CourseSchedule schedule;
+
+            private Slot(int start, int end, CourseSchedule schedule) {
+                this.start = start;
+                this.end = end;
+                this.schedule = schedule;
+            }
+        }
+
+        /**
+         * Find a schedule overlapping a time range
+         *
+         * @param start Start minute of the week
+         * @param end   End minute of the week
+         * @return A conflicting schedule, or null if the range is free
+         */
+        public synchronized CourseSchedule findConflict(int start, int end) {
+            // Slots are disjoint, so only the last one starting at or before
+            // the end of the range can reach into it
+            Map.Entry<Integer, Slot> candidate = slots.floorEntry(end);
+            if (candidate != null && candidate.getValue().end >= start) {
+                return candidate.getValue().schedule;
+            }
+            return null;
+        }
+
+        /**
+         * Find a schedule overlapping the given one
+         *
+         * @param schedule Schedule to check
+         * @return A conflicting schedule, or null if there is none
+         */
+        public synchronized CourseSchedule findConflict(CourseSchedule schedule) {
+            if (schedule.isPlaced()) {
+                return findConflict(schedule.getStartMinuteOfWeek(), schedule.getEndMinuteOfWeek());
+            }
+            for (CourseSchedule other : unplaced) {
+                if (other.conflictsWith(schedule)) {
+                    return other;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Add a schedule if it does not overlap an existing one
+         *
+         * @param schedule Schedule to add
+         * @return true if addition successful, false on a conflict
+         */
+        public synchronized boolean add(CourseSchedule schedule) {
+            if (!schedule.isPlaced()) {
+                if (findConflict(schedule) != null) {
+                    return false; // Same day text at an overlapping time
+                }
+                unplaced.add(schedule);
+                return true;
+            }
+            int start = schedule.getStartMinuteOfWeek();
+            int end = schedule.getEndMinuteOfWeek();
+            if (findConflict(start, end) != null) {
+                return false; // Schedule conflict
+            }
+            slots.put(start, new Slot(start, end, schedule));
+            return true;
+        }
+
+        /**
+         * Remove a schedule
+         *
+         * @param schedule Schedule to remove
+         * @return true if removal successful, false otherwise
+         */
+        public synchronized boolean remove(CourseSchedule schedule) {
+            if (unplaced.removeIf(s -> s == schedule)) {
+                return true;
+            }
+            Slot slot = slots.get(schedule.getStartMinuteOfWeek());
+            if (slot != null && slot.schedule == schedule) {
+                slots.remove(slot.start);
+                return true;
+            }
+            // The schedule was retimed after it was added
+            return slots.values().removeIf(s -> s.schedule == schedule);
+        }
+
+        /**
+         * Get the schedules ordered by start time, unrecognized days last
+         *
+         * @return List of schedules
+         */
+        public synchronized List<CourseSchedule> getSchedules() {
+            List<CourseSchedule> result = new ArrayList<>(slots.size() + unplaced.size());
+            for (Slot slot : slots.values()) {
+                result.add(slot.schedule);
+            }
+            result.addAll(unplaced);
+            return result;
+        }
+
+        public synchronized int size() {
+            return slots.size() + unplaced.size();
+        }
+    }
+
+    /**
+     * Find a schedule of a resource overlapping the given one
+     *
+     * @param key      Resource
+     * @param schedule Schedule to check
+     * @return A conflicting schedule, or null if there is none
+     */
+    public CourseSchedule findConflict(K key, CourseSchedule schedule) {
+        Timeline timeline = timelines.get(key);
+        return timeline != null ? timeline.findConflict(schedule) : null;
+    }
+
+    /**
+     * Book a schedule for a resource if the resource is free at that time
+     *
+     * @param key      Resource
+     * @param schedule Schedule to add
+     * @return true if addition successful, false on a conflict
+     */
+    public boolean add(K key, CourseSchedule schedule) {
+        return timelines.computeIfAbsent(key, k -> new Timeline()).add(schedule);
+    }
+
+    /**
+     * Release a schedule of a resource
+     *
+     * @param key      Resource
+     * @param schedule Schedule to remove
+     * @return true if removal successful, false otherwise
+     */
+    public boolean remove(K key, CourseSchedule schedule) {
+        Timeline timeline = timelines.get(key);
+        return timeline != null && timeline.remove(schedule);
+    }
+
+    /**
+     * Get the schedules of a resource ordered by start time
+     *
+     * @param key Resource
+     * @return List of schedules
+     */
+    public List<CourseSchedule> getSchedules(K key) {
+        Timeline timeline = timelines.get(key);
+        return timeline != null ? timeline.getSchedules() : new ArrayList<>();
+    }
+}
@@ -0,0 +1,490 @@
+package uni;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Automatic room and meeting time assignment for a term's offerings
+ *
+ * Each offering gets one meeting pattern (e.g. Monday/Wednesday/Friday at
+ * 9:00) and one room with enough seats, so that no room and no instructor is
+ * booked twice and instructors only teach while available. Offerings are
+ * colored greedily, most constrained first, with rooms and instructors
+ * tracked as {@link WeekBitmap}s so every clash check is a few AND
+ * operations. Several starts with randomized tie-breaking run in parallel and
+ * the one leaving the fewest offerings unassigned wins; ties go to the lowest
+ * start, so the result does not depend on thread timing.
+ *
+ * Offerings that already have students keep their schedules, as do offerings
+ * registered with {@link #addBookings(Collection)}. Their rooms and
+ * instructors count as booked at those times.
+ */
+public class ScheduleSolver {
+    // Rooms sorted by capacity, smallest first. Capacities are copied so later
+    // changes to a Room cannot break the order.
+    private final String[] roomIds;
+    private final int[] capacities;
+    private final Map<String, Integer> roomIndexes = new HashMap<>();
+    private final List<MeetingPattern> patterns;
+    private final Map<Faculty, WeekBitmap> availability = new HashMap<>();
+    private final List<CourseOffering> bookings = new ArrayList<>();
+    private int starts = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * A set of days sharing the same meeting time
+     */
+    public static class MeetingPattern {
+        private final String name;
+        private final String[] days;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final WeekBitmap slots;
+
+        /**
+         * Constructor for MeetingPattern class
+         *
+         * @param name      Display name (e.g. "MWF 9:00")
+         * @param startTime Start time on each day
+         * @param endTime   End time on each day
+         * @param days      Meeting days
+         */
+        public MeetingPattern(String name, LocalTime startTime, LocalTime endTime, String... days) {
+            if (days.length == 0) {
+                throw new IllegalArgumentException("Meeting pattern needs at least one day");
+            }
+            this.name = name;
+            this.days = days.clone();
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.slots = WeekBitmap.of(toSchedules(0, null));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public WeekBitmap getSlots() {
+            return slots.copy(); // Return a copy to preserve encapsulation
+        }
+
+        /**
+         * Create one schedule per meeting day
+         *
+         * @param firstScheduleId ID of the first schedule; the rest follow in order
+         * @param location        Room or location
+         * @return List of schedules
+         */
+        public List<CourseSchedule> toSchedules(int firstScheduleId, String location) {
+            List<CourseSchedule> schedules = new ArrayList<>();
+            for (int i = 0; i < days.length; i++) {
+                schedules.add(new CourseSchedule(firstScheduleId + i, days[i], startTime, endTime, location));
+            }
+            return schedules;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Outcome of a solver run
+     */
+    public static class Solution {
+        private final Map<CourseOffering, List<CourseSchedule>> schedules;
+        private final List<CourseOffering> unassigned;
+        private final List<CourseOffering> kept;
+        private final double millis;
+
+        private Solution(Map<CourseOffering, List<CourseSchedule>> schedules, List<CourseOffering> unassigned,
+                List<CourseOffering> kept, double millis) {
+            this.schedules = schedules;
+            this.unassigned = unassigned;
+            this.kept = kept;
+            this.millis = millis;
+        }
+
+        /**
+         * Get the schedules chosen for an offering
+         *
+         * @param offering Offering to look up
+         * @return List of schedules, empty if the offering could not be placed
+         */
+        public List<CourseSchedule> getSchedules(CourseOffering offering) {
+            List<CourseSchedule> chosen = schedules.get(offering);
+            return chosen != null ? new ArrayList<>(chosen) : new ArrayList<>();
+        }
+
+        public int getAssignedCount() {
+            return schedules.size();
+        }
+
+        public List<CourseOffering> getUnassigned() {
+            return new ArrayList<>(unassigned); // Return a copy to preserve encapsulation
+        }
+
+        /**
+         * Get the offerings left as they were because students had already
+         * registered for them
+         *
+         * @return List of offerings
+         */
+        public List<CourseOffering> getKept() {
+            return new ArrayList<>(kept); // Return a copy to preserve encapsulation
+        }
+
+        public boolean isComplete() {
+            return unassigned.isEmpty();
+        }
+
+        public double getMillis() {
+            return millis;
+        }
+
+        /**
+         * Replace the schedules of every placed offering with the chosen ones,
+         * one offering at a time with {@link CourseOffering#replaceSchedulesIfEmpty(List)}.
+         * Offerings that could not be placed keep their current schedules, and
+         * so do offerings students registered for after the solver ran.
+         *
+         * @return Offerings that were skipped
+         */
+        public List<CourseOffering> apply() {
+            List<CourseOffering> skipped = new ArrayList<>();
+            for (Map.Entry<CourseOffering, List<CourseSchedule>> entry : schedules.entrySet()) {
+                CourseOffering offering = entry.getKey();
+                if (!offering.replaceSchedulesIfEmpty(entry.getValue())) {
+                    skipped.add(offering); // Students registered meanwhile, or the schedules were reused
+                }
+            }
+            return skipped;
+        }
+    }
+
+    /**
+     * Constructor for ScheduleSolver class using the default meeting patterns
+     *
+     * @param rooms Rooms available for teaching
+     */
+    public ScheduleSolver(List<Room> rooms) {
+        this(rooms, defaultPatterns());
+    }
+
+    /**
+     * Constructor for ScheduleSolver class
+     *
+     * @param rooms    Rooms available for teaching
+     * @param patterns Meeting patterns offerings may be given
+     */
+    public ScheduleSolver(List<Room> rooms, List<MeetingPattern> patterns) {
+        if (rooms.isEmpty() || patterns.isEmpty()) {
+            throw new IllegalArgumentException("Solver needs at least one room and one meeting pattern");
+        }
+        List<Room> sorted = new ArrayList<>(rooms);
+        sorted.sort(Comparator.comparingInt(Room::getCapacity));
+        this.roomIds = new String[sorted.size()];
+        this.capacities = new int[sorted.size()];
+        for (int r = 0; r < sorted.size(); r++) {
+            roomIds[r] = sorted.get(r).getRoomId();
+            capacities[r] = sorted.get(r).getCapacity();
+            if (roomIndexes.put(roomIds[r], r) != null) {
+                throw new IllegalArgumentException("Duplicate room: " + roomIds[r]);
+            }
+        }
+        this.patterns = new ArrayList<>(patterns);
+    }
+
+    /**
+     * Get the standard weekly patterns: 50 minutes on Monday, Wednesday and
+     * Friday on the hour from 8:00, and 75 minutes on Tuesday and Thursday
+     * every 90 minutes from 8:00
+     *
+     * @return List of meeting patterns
+     */
+    public static List<MeetingPattern> defaultPatterns() {
+        List<MeetingPattern> patterns = new ArrayList<>();
+        for (int hour = 8; hour <= 16; hour++) {
+            LocalTime start = LocalTime.of(hour, 0);
+            patterns.add(new MeetingPattern("MWF " + start, start, start.plusMinutes(50),
+                    "Monday", "Wednesday", "Friday"));
+        }
+        for (LocalTime start = LocalTime.of(8, 0); !start.isAfter(LocalTime.of(15, 30)); start = start
+                .plusMinutes(90)) {
+            patterns.add(new MeetingPattern("TTh " + start, start, start.plusMinutes(75), "Tuesday", "Thursday"));
+        }
+        return patterns;
+    }
+
+    /**
+     * Restrict when an instructor can teach. Instructors without availability
+     * can teach at any time.
+     *
+     * @param faculty   Instructor
+     * @param available Slots the instructor can teach in
+     */
+    public void setAvailability(Faculty faculty, WeekBitmap available) {
+        availability.put(faculty, available.copy());
+    }
+
+    /**
+     * Keep the current schedules of offerings outside the solved list, e.g.
+     * other terms' offerings sharing the rooms. Their rooms (matched by
+     * location) and instructors count as booked at those times.
+     *
+     * @param offerings Offerings whose schedules are fixed
+     */
+    public void addBookings(Collection<CourseOffering> offerings) {
+        bookings.addAll(offerings);
+    }
+
+    public int getStarts() {
+        return starts;
+    }
+
+    public void setStarts(int starts) {
+        if (starts <= 0) {
+            throw new IllegalArgumentException("Starts must be positive");
+        }
+        this.starts = starts;
+    }
+
+    /**
+     * Assign a meeting pattern and a room to each offering. Offerings that
+     * already have students are kept as they are. The offerings are not
+     * changed until {@link Solution#apply()} is called.
+     *
+     * @param offerings       Offerings of one term
+     * @param firstScheduleId ID of the first created schedule; the rest follow
+     *                        in order
+     * @return Best solution found
+     */
+    public Solution solve(List<CourseOffering> offerings, int firstScheduleId) {
+        long start = System.nanoTime();
+        List<CourseOffering> movable = new ArrayList<>();
+        List<CourseOffering> kept = new ArrayList<>();
+        for (CourseOffering offering : offerings) {
+            (offering.getSeatsTaken() > 0 ? kept : movable).add(offering);
+        }
+        List<CourseOffering> fixed = new ArrayList<>(bookings);
+        fixed.addAll(kept);
+        Problem problem = new Problem(movable, fixed);
+
+        // Starts run in parallel. A start is skipped only when a lower start
+        // already placed everything, so the lowest complete start always runs
+        // and the winner is the same on every run.
+        AtomicInteger completeSeed = new AtomicInteger(Integer.MAX_VALUE);
+        Attempt best = IntStream.range(0, starts).parallel()
+                .mapToObj(seed -> seed > completeSeed.get() ? null : problem.attempt(seed, completeSeed))
+                .filter(Objects::nonNull)
+                .min(Comparator.comparingInt((Attempt attempt) -> attempt.unassigned)
+                        .thenComparingInt(attempt -> attempt.seed))
+                .orElseThrow();
+
+        // Only the winning start is turned into schedules
+        Map<CourseOffering, List<CourseSchedule>> schedules = new LinkedHashMap<>();
+        List<CourseOffering> unassigned = new ArrayList<>();
+        int nextScheduleId = firstScheduleId;
+        for (int i = 0; i < movable.size(); i++) {
+            if (best.pattern[i] < 0) {
+                unassigned.add(movable.get(i));
+                continue;
+            }
+            List<CourseSchedule> chosen = patterns.get(best.pattern[i])
+                    .toSchedules(nextScheduleId, roomIds[best.room[i]]);
+            nextScheduleId += chosen.size();
+            schedules.put(movable.get(i), chosen);
+        }
+        return new Solution(schedules, unassigned, kept, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Pattern and room chosen for each offering by one start; -1 when the
+     * offering could not be placed
+     */
+    private static class Attempt {
+        private final int seed;
+        private final int[] pattern;
+        private final int[] room;
+        private int unassigned;
+
+        private Attempt(int seed, int size) {
+            this.seed = seed;
+            this.pattern = new int[size];
+            this.room = new int[size];
+            Arrays.fill(pattern, -1);
+            Arrays.fill(room, -1);
+        }
+    }
+
+    /**
+     * Offerings flattened into arrays shared read-only by every start
+     */
+    private class Problem {
+        private final int size;
+        private final int[] firstRoom; // Smallest room with enough seats
+        private final int[] instructor; // Dense instructor index, -1 if none
+        private final WeekBitmap[] available; // Per instructor, null if always available
+        private final WeekBitmap[] patternSlots;
+        private final int[] baseOrder; // Most constrained offerings first
+        private final WeekBitmap[] roomBooked; // Taken by fixed offerings
+        private final WeekBitmap[] instructorBooked; // Taken by fixed offerings
+
+        private Problem(List<CourseOffering> offerings, List<CourseOffering> fixed) {
+            size = offerings.size();
+            firstRoom = new int[size];
+            instructor = new int[size];
+
+            Map<Faculty, Integer> instructors = new HashMap<>();
+            List<WeekBitmap> availableList = new ArrayList<>();
+            int[] load = new int[size];
+            for (int i = 0; i < size; i++) {
+                CourseOffering offering = offerings.get(i);
+                firstRoom[i] = firstRoomFor(offering.getCourse().getMaxCapacity());
+                Faculty faculty = offering.getFaculty();
+                if (faculty == null) {
+                    instructor[i] = -1;
+                    continue;
+                }
+                instructor[i] = instructors.computeIfAbsent(faculty, f -> {
+                    availableList.add(availability.get(f));
+                    return availableList.size() - 1;
+                });
+            }
+            available = availableList.toArray(new WeekBitmap[0]);
+
+            roomBooked = new WeekBitmap[roomIds.length];
+            for (int r = 0; r < roomBooked.length; r++) {
+                roomBooked[r] = new WeekBitmap();
+            }
+            instructorBooked = new WeekBitmap[available.length];
+            for (int f = 0; f < instructorBooked.length; f++) {
+                instructorBooked[f] = new WeekBitmap();
+            }
+            for (CourseOffering offering : fixed) {
+                Integer f = offering.getFaculty() != null ? instructors.get(offering.getFaculty()) : null;
+                for (CourseSchedule schedule : offering.getSchedules()) {
+                    Integer r = schedule.getLocation() != null ? roomIndexes.get(schedule.getLocation()) : null;
+                    if (r != null) {
+                        roomBooked[r].add(schedule);
+                    }
+                    if (f != null) {
+                        instructorBooked[f].add(schedule);
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (instructor[i] >= 0) {
+                    load[instructor[i]]++;
+                }
+            }
+
+            patternSlots = new WeekBitmap[patterns.size()];
+            for (int p = 0; p < patternSlots.length; p++) {
+                patternSlots[p] = patterns.get(p).slots;
+            }
+
+            // Fewest usable rooms first, then the busiest instructors
+            baseOrder = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.comparingInt((Integer i) -> -firstRoom[i])
+                            .thenComparingInt(i -> instructor[i] >= 0 ? -load[instructor[i]] : 0))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+
+        private int firstRoomFor(int seats) {
+            int low = 0;
+            int high = capacities.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (capacities[mid] < seats) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Greedily place every offering. Start 0 keeps the base order; other
+         * starts perturb the order and rotate the patterns tried first.
+         */
+        private Attempt attempt(int seed, AtomicInteger completeSeed) {
+            Random random = new Random(seed);
+            int[] order = seed == 0 ? baseOrder : perturb(baseOrder, random);
+            WeekBitmap[] roomBusy = new WeekBitmap[roomBooked.length];
+            WeekBitmap[] instructorBusy = new WeekBitmap[instructorBooked.length];
+            for (int r = 0; r < roomBusy.length; r++) {
+                roomBusy[r] = roomBooked[r].copy();
+            }
+            for (int f = 0; f < instructorBusy.length; f++) {
+                instructorBusy[f] = instructorBooked[f].copy();
+            }
+
+            Attempt attempt = new Attempt(seed, size);
+            for (int i : order) {
+                if (!place(attempt, i, seed == 0 ? 0 : random.nextInt(patternSlots.length), roomBusy,
+                        instructorBusy)) {
+                    attempt.unassigned++;
+                }
+            }
+            if (attempt.unassigned == 0) {
+                completeSeed.accumulateAndGet(seed, Math::min);
+            }
+            return attempt;
+        }
+
+        private boolean place(Attempt attempt, int i, int rotation, WeekBitmap[] roomBusy,
+                WeekBitmap[] instructorBusy) {
+            int f = instructor[i];
+            // Best fit: the smallest room that has any usable pattern
+            for (int r = firstRoom[i]; r < roomIds.length; r++) {
+                for (int k = 0; k < patternSlots.length; k++) {
+                    int p = (k + rotation) % patternSlots.length;
+                    WeekBitmap slots = patternSlots[p];
+                    if (roomBusy[r].intersects(slots)) {
+                        continue; // Room taken
+                    }
+                    if (f >= 0 && (instructorBusy[f].intersects(slots)
+                            || available[f] != null && !slots.isSubsetOf(available[f]))) {
+                        continue; // Instructor busy or unavailable
+                    }
+                    roomBusy[r].or(slots);
+                    if (f >= 0) {
+                        instructorBusy[f].or(slots);
+                    }
+                    attempt.pattern[i] = p;
+                    attempt.room[i] = r;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Swap each offering with a near neighbour in the order, so the most
+         * constrained offerings still come early
+         */
+        private int[] perturb(int[] order, Random random) {
+            int[] perturbed = order.clone();
+            for (int i = 0; i < perturbed.length - 1; i++) {
+                int j = Math.min(perturbed.length - 1, i + random.nextInt(4));
+                int swap = perturbed[i];
+                perturbed[i] = perturbed[j];
+                perturbed[j] = swap;
+            }
+            return perturbed;
+        }
+    }
+}
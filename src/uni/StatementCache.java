@@ -0,0 +1,96 @@
+package uni;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-connection LRU cache of prepared statements
+ *
+ * A pooled connection is only ever used by the thread that borrowed it, so the
+ * cache itself is not synchronized. Statements handed out by the cache must not
+ * be closed by callers; only their result sets should be.
+ */
+public class StatementCache {
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private final AtomicLong hits = new AtomicLong(); // Read by the pool statistics from other threads
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor for StatementCache class
+     *
+     * @param connection Connection the statements belong to
+     * @param capacity   Maximum number of statements kept open
+     */
+    public StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a prepared statement for the given SQL, preparing it on first use
+     *
+     * @param sql SQL text
+     * @return Prepared statement with its parameters and batch cleared
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            hits.incrementAndGet();
+            statement.clearParameters();
+            statement.clearBatch(); // A failed executeBatch leaves its rows queued
+            return statement;
+        }
+
+        misses.incrementAndGet();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Close every cached statement
+     */
+    public void clear() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing prepared statement: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package uni;
+
+/**
+ * Compact byte codes for enrollment and academic statuses
+ *
+ * Statuses are stored and compared as bytes and converted back to their
+ * string form for persistence and display.
+ */
+public class StatusCodes {
+    public static final byte UNKNOWN = -1;
+
+    // Enrollment statuses
+    public static final byte ENROLLED = 0;
+    public static final byte WITHDRAWN = 1;
+    public static final byte COMPLETED = 2;
+
+    // Academic statuses
+    public static final byte ACTIVE = 0;
+    public static final byte ON_PROBATION = 1;
+    public static final byte GRADUATED = 2;
+
+    private static final String[] ENROLLMENT_NAMES = { "Enrolled", "Withdrawn", "Completed" };
+    private static final String[] ACADEMIC_NAMES = { "Active", "On Probation", "Graduated" };
+
+    private StatusCodes() {
+    }
+
+    /**
+     * Encode an enrollment status
+     * 
+     * @param status "Enrolled", "Withdrawn" or "Completed"
+     * @return Status code, or UNKNOWN if not recognized
+     */
+    public static byte encodeEnrollmentStatus(String status) {
+        return indexOf(ENROLLMENT_NAMES, status);
+    }
+
+    /**
+     * Decode an enrollment status code
+     * 
+     * @param code Status code
+     * @return Status name, or null for UNKNOWN
+     */
+    public static String decodeEnrollmentStatus(byte code) {
+        return code >= 0 && code < ENROLLMENT_NAMES.length ? ENROLLMENT_NAMES[code] : null;
+    }
+
+    /**
+     * Encode an academic status
+     * 
+     * @param status "Active", "On Probation" or "Graduated"
+     * @return Status code, or UNKNOWN if not recognized
+     */
+    public static byte encodeAcademicStatus(String status) {
+        return indexOf(ACADEMIC_NAMES, status);
+    }
+
+    /**
+     * Decode an academic status code
+     * 
+     * @param code Status code
+     * @return Status name, or null for UNKNOWN
+     */
+    public static String decodeAcademicStatus(byte code) {
+        return code >= 0 && code < ACADEMIC_NAMES.length ? ACADEMIC_NAMES[code] : null;
+    }
+
+    private static byte indexOf(String[] names, String status) {
+        if (status != null) {
+            for (byte i = 0; i < names.length; i++) {
+                if (names[i].equals(status)) {
+                    return i;
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+}
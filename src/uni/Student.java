@@ -1,8 +1,14 @@
 package uni;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Student class that extends User
@@ -10,8 +16,15 @@ import java.util.List;
 public class Student extends User {
     private String studentId;
     private LocalDate admissionDate;
-    private String academicStatus; // "Active", "On Probation", "Graduated"
-    private List<Enrollment> enrollments;
+    private byte academicStatus; // Encoded "Active", "On Probation", "Graduated"
+    private final List<Enrollment> enrollments = new CopyOnWriteArrayList<>();
+    private final List<Enrollment> enrollmentsView = Collections.unmodifiableList(enrollments);
+    private final BitSet passedCourses = new BitSet(); // Ordinals of courses completed with a passing grade
+    private final AtomicLong enrollmentVersion = new AtomicLong(); // Bumped on every enrollment change
+    private int gpaCredits; // Credit hours of graded, completed enrollments
+    private long gpaPointTenths; // Sum of grade points times credit hours, in tenths
+    private ReportViews reportViews; // Report views counting this student, if any
+    private final Map<String, Timetable> timetables = new HashMap<>(); // Busy slots per term, built on demand
 
     /**
      * Constructor for Student class
@@ -32,7 +45,6 @@ public class Student extends User {
         this.studentId = studentId;
         this.admissionDate = admissionDate;
         setAcademicStatus(academicStatus);
-        this.enrollments = new ArrayList<>();
     }
 
     // Getters and setters
@@ -45,20 +57,49 @@ public class Student extends User {
     }
 
     public String getAcademicStatus() {
+        return StatusCodes.decodeAcademicStatus(academicStatus);
+    }
+
+    byte getAcademicStatusCode() {
         return academicStatus;
     }
 
-    public void setAcademicStatus(String academicStatus) {
+    ReportViews getReportViews() {
+        return reportViews;
+    }
+
+    void setReportViews(ReportViews reportViews) {
+        this.reportViews = reportViews;
+    }
+
+    public synchronized void setAcademicStatus(String academicStatus) {
         // Validate status
-        if (!academicStatus.equals("Active") && !academicStatus.equals("On Probation")
-                && !academicStatus.equals("Graduated")) {
+        byte code = StatusCodes.encodeAcademicStatus(academicStatus);
+        if (code == StatusCodes.UNKNOWN) {
             throw new IllegalArgumentException("Academic status must be 'Active', 'On Probation', or 'Graduated'");
         }
-        this.academicStatus = academicStatus;
+        if (reportViews != null && code != this.academicStatus) {
+            reportViews.onAcademicStatusChanged(this.academicStatus, code);
+        }
+        this.academicStatus = code;
     }
 
     public List<Enrollment> getEnrollments() {
-        return new ArrayList<>(enrollments); // Return a copy to preserve encapsulation
+        return enrollmentsView; // Shared read-only view; writes copy the backing array
+    }
+
+    /**
+     * Get a counter that changes whenever an enrollment is added or changes
+     * status or grade, so callers can tell when cached results are stale
+     * 
+     * @return Enrollment version
+     */
+    public long getEnrollmentVersion() {
+        return enrollmentVersion.get();
+    }
+
+    public synchronized BitSet getPassedCourses() {
+        return (BitSet) passedCourses.clone(); // Return a copy to preserve encapsulation
     }
 
     /**
@@ -67,42 +108,206 @@ public class Student extends User {
      * @param courseOffering Course to register for
      * @return true if registration successful, false otherwise
      */
-    public boolean registerForCourse(CourseOffering courseOffering) {
+    public synchronized boolean registerForCourse(CourseOffering courseOffering) {
         // Check if already enrolled
         for (Enrollment enrollment : enrollments) {
             if (enrollment.getCourseOffering().getOfferingId() == courseOffering.getOfferingId() &&
-                    !enrollment.getStatus().equals("Withdrawn")) {
+                    enrollment.getStatusCode() != StatusCodes.WITHDRAWN) {
                 return false; // Already enrolled
             }
         }
 
-        // Check course capacity
-        if (courseOffering.getEnrolledStudents() >= courseOffering.getCourse().getMaxCapacity()) {
-            return false; // Course is full
+        // Check prerequisites: every prerequisite bit must also be set in the passed courses
+        Course course = courseOffering.getCourse();
+        BitSet missing = course.getPrerequisiteGraph().getDirectPrerequisites(course.getOrdinal());
+        missing.andNot(passedCourses);
+        if (!missing.isEmpty()) {
+            return false; // Prerequisite not met
         }
 
-        // Check prerequisites
-        for (Course prerequisite : courseOffering.getCourse().getPrerequisites()) {
-            boolean hasCompleted = false;
-            for (Enrollment enrollment : enrollments) {
-                if (enrollment.getCourseOffering().getCourse().getCourseId().equals(prerequisite.getCourseId()) &&
-                        enrollment.getStatus().equals("Completed") &&
-                        (enrollment.getGrade() != null && !enrollment.getGrade().equals("F"))) {
-                    hasCompleted = true;
-                    break;
-                }
-            }
-            if (!hasCompleted) {
-                return false; // Prerequisite not met
-            }
+        // Check for time conflicts with the other offerings taken this term
+        if (hasScheduleConflict(courseOffering)) {
+            return false; // Schedule conflict
+        }
+
+        // Claim a seat atomically; concurrent registrations can never oversell
+        if (!courseOffering.reserveSeat()) {
+            return false; // Course is full
         }
 
         // Create new enrollment
         Enrollment enrollment = new Enrollment(0, this, courseOffering, LocalDate.now(), null, "Enrolled");
+        courseOffering.confirmReservation(enrollment);
         enrollments.add(enrollment);
+        enrollment.track();
+        onEnrollmentStatusChanged(enrollment, StatusCodes.UNKNOWN, enrollment.getStatusCode());
         return true;
     }
 
+    /**
+     * Attach an existing enrollment, e.g. one restored from storage
+     *
+     * @param enrollment Enrollment belonging to this student
+     */
+    synchronized void addEnrollment(Enrollment enrollment) {
+        enrollments.add(enrollment);
+        enrollment.track();
+        if (enrollment.isPassed()) {
+            passedCourses.set(enrollment.getCourseOffering().getCourse().getOrdinal());
+        }
+        gpaCredits += enrollment.getGpaCredits();
+        gpaPointTenths += enrollment.getGpaPointTenths();
+        onEnrollmentStatusChanged(enrollment, StatusCodes.UNKNOWN, enrollment.getStatusCode());
+    }
+
+    /**
+     * Record a new enrollment or a status transition of an existing one
+     *
+     * @param enrollment Enrollment that changed
+     * @param oldStatus  Previous status code, UNKNOWN for a new enrollment
+     * @param newStatus  New status code
+     */
+    synchronized void onEnrollmentStatusChanged(Enrollment enrollment, byte oldStatus, byte newStatus) {
+        enrollmentsChanged();
+        updateTimetable(enrollment.getCourseOffering(), oldStatus, newStatus);
+        if (reportViews != null) {
+            reportViews.onEnrollmentStatusChanged(enrollment.getCourseOffering(), oldStatus, newStatus);
+        }
+    }
+
+    /**
+     * Busy slots of one term together with the schedule versions of the
+     * offerings they were built from
+     */
+    private static class Timetable {
+        private final WeekBitmap busy = new WeekBitmap();
+        private final Map<CourseOffering, Long> scheduleVersions = new HashMap<>();
+
+        private void add(CourseOffering offering) {
+            // Read the version first, so a concurrent move is caught by isCurrent
+            scheduleVersions.put(offering, offering.getScheduleVersion());
+            busy.or(offering.getWeekBitmap());
+        }
+
+        private boolean isCurrent() {
+            for (Map.Entry<CourseOffering, Long> entry : scheduleVersions.entrySet()) {
+                if (entry.getKey().getScheduleVersion() != entry.getValue()) {
+                    return false; // A meeting time changed since the bitmap was built
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Check if an offering meets at the same time as one this student is
+     * enrolled in for the same term
+     * 
+     * @param courseOffering Offering to check
+     * @return true if the times overlap, false otherwise
+     */
+    synchronized boolean hasScheduleConflict(CourseOffering courseOffering) {
+        WeekBitmap busy = getTimetable(courseOffering).busy;
+        if (!busy.intersects(courseOffering.getWeekBitmap())) {
+            return false; // No shared slots
+        }
+
+        // Sharing a slot only means the times are within 5 minutes; confirm exactly
+        List<CourseSchedule> schedules = courseOffering.getSchedules();
+        for (Enrollment enrollment : enrollments) {
+            CourseOffering other = enrollment.getCourseOffering();
+            if (enrollment.getStatusCode() != StatusCodes.ENROLLED || !sameTerm(other, courseOffering)) {
+                continue;
+            }
+            for (CourseSchedule taken : other.getSchedules()) {
+                for (CourseSchedule schedule : schedules) {
+                    if (taken.conflictsWith(schedule)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the slots this student is busy in during an offering's term
+     * 
+     * @param courseOffering Offering whose term to look up
+     * @return Timetable of the term's enrolled schedules
+     */
+    private Timetable getTimetable(CourseOffering courseOffering) {
+        String key = termKey(courseOffering);
+        Timetable timetable = timetables.get(key);
+        if (timetable != null && timetable.isCurrent()) {
+            return timetable;
+        }
+
+        timetable = new Timetable();
+        for (Enrollment enrollment : enrollments) {
+            CourseOffering other = enrollment.getCourseOffering();
+            if (enrollment.getStatusCode() == StatusCodes.ENROLLED && sameTerm(other, courseOffering)) {
+                timetable.add(other);
+            }
+        }
+        timetables.put(key, timetable);
+        return timetable;
+    }
+
+    /**
+     * Keep the term timetable in step with an enrollment status change
+     */
+    private synchronized void updateTimetable(CourseOffering courseOffering, byte oldStatus, byte newStatus) {
+        String key = termKey(courseOffering);
+        if (oldStatus == StatusCodes.ENROLLED) {
+            timetables.remove(key); // Bits may be shared, so rebuild on next use
+        } else if (newStatus == StatusCodes.ENROLLED) {
+            Timetable timetable = timetables.get(key);
+            if (timetable != null) {
+                timetable.add(courseOffering);
+            }
+        }
+    }
+
+    private static String termKey(CourseOffering courseOffering) {
+        return courseOffering.getSemester() + " " + courseOffering.getYear();
+    }
+
+    private static boolean sameTerm(CourseOffering a, CourseOffering b) {
+        return a.getYear() == b.getYear() && Objects.equals(a.getSemester(), b.getSemester());
+    }
+
+    /**
+     * Record that one of this student's enrollments changed
+     */
+    void enrollmentsChanged() {
+        enrollmentVersion.incrementAndGet();
+    }
+
+    /**
+     * Update the passed courses when an enrollment is graded or regraded
+     *
+     * @param enrollment Enrollment that changed
+     * @param passed     Whether it now counts as passed
+     */
+    synchronized void onPassedChanged(Enrollment enrollment, boolean passed) {
+        int ordinal = enrollment.getCourseOffering().getCourse().getOrdinal();
+        enrollmentsChanged();
+        if (passed) {
+            passedCourses.set(ordinal);
+            return;
+        }
+
+        // Keep the bit if another attempt at the same course was passed
+        for (Enrollment other : enrollments) {
+            if (other != enrollment && other.isPassed()
+                    && other.getCourseOffering().getCourse().getOrdinal() == ordinal) {
+                return;
+            }
+        }
+        passedCourses.clear(ordinal);
+    }
+
     /**
      * Drop a course
      * 
@@ -114,7 +319,7 @@ public class Student extends User {
             return false; // Not enrolled in this course
         }
 
-        if (enrollment.getStatus().equals("Completed")) {
+        if (enrollment.getStatusCode() == StatusCodes.COMPLETED) {
             return false; // Can't drop completed course
         }
 
@@ -123,60 +328,34 @@ public class Student extends User {
     }
 
     /**
-     * Calculate GPA based on completed courses
+     * Update the running GPA totals when an enrollment is completed, regraded
+     * or withdrawn
+     *
+     * @param creditDelta     Change in counted credit hours
+     * @param pointTenthDelta Change in grade points times credit hours, in tenths
+     */
+    synchronized void onGpaContributionChanged(int creditDelta, int pointTenthDelta) {
+        gpaCredits += creditDelta;
+        gpaPointTenths += pointTenthDelta;
+    }
+
+    /**
+     * Calculate GPA based on completed courses. Uses running totals, so the
+     * cost does not depend on the number of enrollments.
      * 
      * @return GPA value
      */
-    public double calculateGPA() {
-        int totalCredits = 0;
-        double totalGradePoints = 0;
-
-        for (Enrollment enrollment : enrollments) {
-            if (enrollment.getStatus().equals("Completed") && enrollment.getGrade() != null) {
-                int creditHours = enrollment.getCourseOffering().getCourse().getCreditHours();
-                double gradePoints = convertGradeToPoints(enrollment.getGrade());
-
-                totalCredits += creditHours;
-                totalGradePoints += (gradePoints * creditHours);
-            }
-        }
-
-        return totalCredits > 0 ? totalGradePoints / totalCredits : 0.0;
+    public synchronized double calculateGPA() {
+        return gpaCredits > 0 ? gpaPointTenths / 10.0 / gpaCredits : 0.0;
     }
 
     /**
-     * Helper method to convert letter grades to GPA points
+     * Get the credit hours counted in the GPA
      * 
-     * @param grade Letter grade (A, B, C, D, F)
-     * @return GPA points
+     * @return Credit hours of graded, completed courses
      */
-    private double convertGradeToPoints(String grade) {
-        switch (grade) {
-            case "A":
-                return 4.0;
-            case "A-":
-                return 3.7;
-            case "B+":
-                return 3.3;
-            case "B":
-                return 3.0;
-            case "B-":
-                return 2.7;
-            case "C+":
-                return 2.3;
-            case "C":
-                return 2.0;
-            case "C-":
-                return 1.7;
-            case "D+":
-                return 1.3;
-            case "D":
-                return 1.0;
-            case "F":
-                return 0.0;
-            default:
-                return 0.0;
-        }
+    public synchronized int getGpaCredits() {
+        return gpaCredits;
     }
 
     @Override
@@ -189,7 +368,7 @@ public class Student extends User {
         return "Student{" +
                 "studentId='" + studentId + '\'' +
                 ", admissionDate=" + admissionDate +
-                ", academicStatus='" + academicStatus + '\'' +
+                ", academicStatus='" + getAcademicStatus() + '\'' +
                 "} " + super.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package uni;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data access object for students
+ *
+ * Students are stored across the users and students tables:
+ * users(user_id, username, password, name, email, contact_info, user_type) and
+ * students(user_id, student_id, admission_date, academic_status).
+ */
+public class StudentDAO extends BaseDAO {
+    static final String SELECT_COLUMNS = "SELECT u.user_id, u.username, u.password, u.name, u.email, " +
+            "u.contact_info, s.student_id, s.admission_date, s.academic_status " +
+            "FROM users u JOIN students s ON s.user_id = u.user_id ";
+
+    private static final String FIND_BY_USERNAME = SELECT_COLUMNS + "WHERE u.username = ?";
+    private static final String FIND_BY_STUDENT_ID = SELECT_COLUMNS + "WHERE s.student_id = ?";
+    private static final String FIND_ALL = SELECT_COLUMNS + "ORDER BY s.student_id";
+    // Upserts update in place; INSERT OR REPLACE would delete the row and anything cascading from it
+    private static final String UPSERT_USER = "INSERT INTO users " +
+            "(user_id, username, password, name, email, contact_info, user_type) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT(user_id) DO UPDATE SET username = excluded.username, password = excluded.password, " +
+            "name = excluded.name, email = excluded.email, contact_info = excluded.contact_info, " +
+            "user_type = excluded.user_type";
+    private static final String UPSERT_STUDENT = "INSERT INTO students " +
+            "(user_id, student_id, admission_date, academic_status) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT(user_id) DO UPDATE SET student_id = excluded.student_id, " +
+            "admission_date = excluded.admission_date, academic_status = excluded.academic_status";
+    private static final String UPDATE_PASSWORD = "UPDATE users SET password = ? WHERE user_id = ?";
+
+    static final RowMapper<Student> MAPPER = rs -> {
+        String admissionDate = rs.getString("admission_date");
+        return new Student(rs.getString("user_id"), rs.getString("username"), rs.getString("password"),
+                rs.getString("name"), rs.getString("email"), rs.getString("contact_info"),
+                rs.getString("student_id"), admissionDate != null ? LocalDate.parse(admissionDate) : null,
+                rs.getString("academic_status"));
+    };
+
+    /**
+     * Constructor for StudentDAO class
+     *
+     * @param databaseManager Connection pool to borrow from
+     */
+    public StudentDAO(DatabaseManager databaseManager) {
+        super(databaseManager);
+    }
+
+    /**
+     * Find a student by login username
+     *
+     * @param username Username to look up
+     * @return Student, or null if not found
+     * @throws SQLException if the query fails
+     */
+    public Student findByUsername(String username) throws SQLException {
+        return queryOne(FIND_BY_USERNAME, ps -> ps.setString(1, username), MAPPER);
+    }
+
+    /**
+     * Find a student by student ID
+     *
+     * @param studentId Student ID to look up
+     * @return Student, or null if not found
+     * @throws SQLException if the query fails
+     */
+    public Student findByStudentId(String studentId) throws SQLException {
+        return queryOne(FIND_BY_STUDENT_ID, ps -> ps.setString(1, studentId), MAPPER);
+    }
+
+    /**
+     * Load every student
+     *
+     * @return List of students ordered by student ID
+     * @throws SQLException if the query fails
+     */
+    public List<Student> findAll() throws SQLException {
+        return queryList(FIND_ALL, ps -> {
+        }, MAPPER);
+    }
+
+    /**
+     * Insert or update a student
+     *
+     * @param student Student to save
+     * @throws SQLException if the update fails
+     */
+    public void save(Student student) throws SQLException {
+        update(new String[] { UPSERT_USER, UPSERT_STUDENT }, new Binder[] {
+                ps -> {
+                    ps.setString(1, student.getUserId());
+                    ps.setString(2, student.getUsername());
+                    ps.setString(3, student.getPassword());
+                    ps.setString(4, student.getName());
+                    ps.setString(5, student.getEmail());
+                    ps.setString(6, student.getContactInfo());
+                    ps.setString(7, student.getUserType());
+                },
+                ps -> {
+                    ps.setString(1, student.getUserId());
+                    ps.setString(2, student.getStudentId());
+                    if (student.getAdmissionDate() != null) {
+                        ps.setString(3, student.getAdmissionDate().toString());
+                    } else {
+                        ps.setNull(3, Types.VARCHAR);
+                    }
+                    ps.setString(4, student.getAcademicStatus());
+                }
+        });
+    }
+
+    /**
+     * Persist a password change
+     *
+     * @param student Student whose password changed
+     * @return true if a row was updated, false otherwise
+     * @throws SQLException if the update fails
+     */
+    public boolean updatePassword(Student student) throws SQLException {
+        return update(UPDATE_PASSWORD, ps -> {
+            ps.setString(1, student.getPassword());
+            ps.setString(2, student.getUserId());
+        }) > 0;
+    }
+}
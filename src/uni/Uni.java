@@ -2,7 +2,9 @@ package uni;
 
 import java.util.Scanner;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,7 +15,11 @@ public class Uni {
     private static Scanner scanner = new Scanner(System.in);
     private static User currentUser = null;
     private static FileManager fileManager = new FileManager();
+    private static UniversityJournal journal;
     private static University university = new University("Alexandria University");
+    private static ReportViews reportViews = new ReportViews();
+    private static EnrollmentWriteBehind enrollmentQueue;
+    private static EligibilityEngine eligibilityEngine = new EligibilityEngine(new ArrayList<>());
 
     public static void main(String[] args) {
         // Initialize the system
@@ -36,25 +42,172 @@ public class Uni {
     }
 
     /**
-     * Initialize the system by loading all data from files
+     * Initialize the system by loading all data from the journal
      */
     private static void initializeSystem() {
         try {
             System.out.println("Initializing University Management System...");
 
-            // Load all necessary data from files
+            // Every change is appended to the journal as it happens
+            journal = new UniversityJournal(Paths.get("data"));
+
+            // Enrollment changes are queued and written to the journal in batches. Changes
+            // a crash left in the queue's log are replayed before the journal is loaded.
+            enrollmentQueue = new EnrollmentWriteBehind(journal::saveEnrollments, Paths.get("data", "enrollments.log"));
+            int replayed = enrollmentQueue.recover();
+            if (replayed > 0) {
+                System.out.println("Recovered " + replayed + " unsaved enrollment changes.");
+            }
+
+            loadData();
+            initializeReportViews();
+            initializeEligibility();
+
+            // Students promoted off a waitlist are saved like direct registrations
+            WaitlistPromoter.getInstance().addPromotionListener(enrollment -> {
+                try {
+                    enrollmentQueue.record(enrollment);
+                } catch (IOException e) {
+                    System.out.println("Error saving promoted enrollment: " + e.getMessage());
+                }
+            });
+
+            System.out.println("System initialized successfully!");
+        } catch (IOException e) {
+            // Without the journal no change could be saved
+            System.out.println("Error initializing system: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Load the journaled data. The first time the journal is used, the data
+     * files of earlier versions are imported into it.
+     *
+     * @throws IOException if the data cannot be loaded or imported
+     */
+    private static void loadData() throws IOException {
+        UniversityData data = journal.restore();
+        if (!data.getUsers().isEmpty()) {
+            for (Department department : data.getDepartments()) {
+                university.addDepartment(department);
+            }
+            for (User user : data.getUsers()) {
+                university.addUser(user);
+            }
+            for (Course course : data.getCourses()) {
+                university.addCourse(course);
+            }
+            return;
+        }
+
+        try {
             fileManager.loadUsers(university);
             fileManager.loadDepartments(university);
             fileManager.loadCourses(university);
             fileManager.loadEnrollments(university);
-
-            System.out.println("System initialized successfully!");
         } catch (IOException e) {
-            System.out.println("Error initializing system: " + e.getMessage());
+            System.out.println("No existing data found: " + e.getMessage());
             System.out.println("Creating new data files...");
 
             // Create initial admin user if no data exists
             createInitialAdmin();
+            return;
+        }
+
+        System.out.println("Importing data files into the journal...");
+        for (Department department : university.getAllDepartments()) {
+            journal.saveDepartment(department);
+        }
+        for (User user : university.getAllUsers()) {
+            journal.saveUser(user);
+        }
+        for (Course course : university.getAllCourses()) {
+            journal.saveCourse(course);
+        }
+        for (Faculty faculty : university.getAllFaculty()) {
+            for (CourseOffering offering : faculty.getCoursesTeaching()) {
+                journal.saveOffering(offering);
+            }
+        }
+        for (Student student : university.getAllStudents()) {
+            for (Enrollment enrollment : student.getEnrollments()) {
+                journal.saveEnrollment(enrollment);
+            }
+        }
+    }
+
+    /**
+     * Fill the report views from the loaded data. From here on they are kept
+     * current by the tracked students and departments.
+     */
+    private static void initializeReportViews() {
+        for (Student student : university.getAllStudents()) {
+            reportViews.trackStudent(student);
+        }
+        for (Department department : university.getAllDepartments()) {
+            reportViews.trackDepartment(department);
+        }
+        for (Faculty faculty : university.getAllFaculty()) {
+            for (CourseOffering offering : faculty.getCoursesTeaching()) {
+                reportViews.trackOffering(offering);
+            }
+        }
+    }
+
+    /**
+     * Build the eligibility engine from the offerings taught by the loaded faculty
+     */
+    private static void initializeEligibility() {
+        List<CourseOffering> offerings = new ArrayList<>();
+        for (Faculty faculty : university.getAllFaculty()) {
+            offerings.addAll(faculty.getCoursesTeaching());
+        }
+        eligibilityEngine.close(); // Stop the previous engine listening to its offerings
+        eligibilityEngine = new EligibilityEngine(offerings);
+    }
+
+    /**
+     * Queue the latest enrollment of a student in an offering for persistence
+     *
+     * @param student  Student whose enrollment changed
+     * @param offering Offering of the enrollment
+     * @throws IOException if the change cannot be logged
+     */
+    private static void recordEnrollment(Student student, CourseOffering offering) throws IOException {
+        List<Enrollment> enrollments = student.getEnrollments();
+        for (int i = enrollments.size() - 1; i >= 0; i--) {
+            if (enrollments.get(i).getCourseOffering() == offering) {
+                enrollmentQueue.record(enrollments.get(i));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Flush queued enrollment changes before the system exits
+     */
+    private static void closeEnrollmentQueue() {
+        if (enrollmentQueue == null) {
+            return; // Nothing was queued
+        }
+        try {
+            enrollmentQueue.close();
+        } catch (IOException e) {
+            // The changes stay in the log and are replayed on the next start
+            System.out.println("Error saving enrollments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the final journal snapshot before the system exits
+     */
+    private static void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            // The journal itself is intact and is replayed on the next start
+            System.out.println("Error saving data snapshot: " + e.getMessage());
         }
     }
 
@@ -66,7 +219,8 @@ public class Uni {
             SystemAdmin admin = new SystemAdmin("admin", "admin123", "System", "Administrator",
                     "admin@alexandria.edu", "123-456-7890");
             university.addUser(admin);
-            fileManager.saveUsers(university);
+            reportViews.userAdded(admin);
+            journal.saveUser(admin);
             System.out.println("Initial admin created with username: 'admin' and password: 'admin123'");
         } catch (IOException e) {
             System.out.println("Error creating initial admin: " + e.getMessage());
@@ -95,6 +249,9 @@ public class Uni {
                 break;
             case 3:
                 System.out.println("Exiting system. Goodbye!");
+                closeEnrollmentQueue();
+                closeJournal();
+                eligibilityEngine.close();
                 System.exit(0);
                 break;
             default:
@@ -144,7 +301,7 @@ public class Uni {
             if (newPassword.length() >= 6) {
                 user.setPassword(newPassword);
                 try {
-                    fileManager.saveUsers(university);
+                    journal.saveUser(user);
                     System.out.println("Password reset successful!");
                 } catch (IOException e) {
                     System.out.println("Error saving new password: " + e.getMessage());
@@ -388,9 +545,10 @@ public class Uni {
 
     private static void registerForCourses(Student student) {
         System.out.println("\n===== Course Registration =====");
-        List<Course> availableCourses = university.getAvailableCoursesForStudent(student);
+        List<CourseOffering> availableOfferings = eligibilityEngine.getAvailableOfferings(student);
+        List<CourseOffering> fullOfferings = eligibilityEngine.getFullOfferings(student);
 
-        if (availableCourses.isEmpty()) {
+        if (availableOfferings.isEmpty() && fullOfferings.isEmpty()) {
             System.out.println("No available courses for registration at this time.");
             System.out.println("Press Enter to continue...");
             scanner.nextLine();
@@ -398,27 +556,39 @@ public class Uni {
         }
 
         System.out.println("Available Courses:");
-        for (int i = 0; i < availableCourses.size(); i++) {
-            Course course = availableCourses.get(i);
+        for (int i = 0; i < availableOfferings.size(); i++) {
+            CourseOffering offering = availableOfferings.get(i);
+            Course course = offering.getCourse();
             System.out.println((i + 1) + ". " + course.getCourseId() + " - " + course.getTitle() +
-                    " (" + course.getCreditHours() + " credits)");
+                    " (" + course.getCreditHours() + " credits, " + offering.getSemester() + " " +
+                    offering.getYear() + ")");
+        }
+        for (int i = 0; i < fullOfferings.size(); i++) {
+            CourseOffering offering = fullOfferings.get(i);
+            System.out.println((availableOfferings.size() + i + 1) + ". " + offering.getCourse().getCourseId() +
+                    " - " + offering.getCourse().getTitle() + " (full, " + offering.getWaitlistSize() +
+                    " waitlisted)");
         }
 
         System.out.print("Enter course number to register (0 to cancel): ");
         int choice = getIntInput();
 
-        if (choice > 0 && choice <= availableCourses.size()) {
-            Course selectedCourse = availableCourses.get(choice - 1);
+        if (choice > 0 && choice <= availableOfferings.size()) {
+            CourseOffering selectedOffering = availableOfferings.get(choice - 1);
             try {
-                if (student.registerForCourse(selectedCourse)) {
-                    fileManager.saveEnrollments(university);
-                    System.out.println("Successfully registered for " + selectedCourse.getTitle());
+                if (student.registerForCourse(selectedOffering)) {
+                    recordEnrollment(student, selectedOffering);
+                    System.out.println("Successfully registered for " + selectedOffering.getCourse().getTitle());
+                } else if (selectedOffering.getAvailableSeats() <= 0) {
+                    offerWaitlist(student, selectedOffering); // Filled up since the list was shown
                 } else {
                     System.out.println("Registration failed. Check prerequisites or enrollment capacity.");
                 }
             } catch (IOException e) {
                 System.out.println("Error saving enrollment: " + e.getMessage());
             }
+        } else if (choice > availableOfferings.size() && choice <= availableOfferings.size() + fullOfferings.size()) {
+            offerWaitlist(student, fullOfferings.get(choice - availableOfferings.size() - 1));
         } else if (choice != 0) {
             System.out.println("Invalid course number.");
         }
@@ -427,6 +597,26 @@ public class Uni {
         scanner.nextLine();
     }
 
+    /**
+     * Ask a student whether to wait for a seat in a full offering
+     *
+     * @param student  Student who could not register
+     * @param offering Full offering
+     */
+    private static void offerWaitlist(Student student, CourseOffering offering) {
+        System.out.println(offering.getCourse().getTitle() + " is full. Join the waitlist? (y/n)");
+        String confirm = scanner.nextLine().toLowerCase();
+
+        if (!confirm.equals("y")) {
+            return; // Declined
+        }
+        if (offering.joinWaitlist(student)) {
+            System.out.println("Added to the waitlist. You will be enrolled when a seat opens up.");
+        } else {
+            System.out.println("You are already on the waitlist or enrolled in this course.");
+        }
+    }
+
     private static void viewEnrolledCourses(Student student) {
         System.out.println("\n===== Enrolled Courses =====");
         List<Enrollment> enrollments = student.getEnrollments();
@@ -497,7 +687,7 @@ public class Uni {
                 Enrollment selectedEnrollment = enrollments.get(choice - 1);
                 try {
                     student.dropCourse(selectedEnrollment.getCourse());
-                    fileManager.saveEnrollments(university);
+                    enrollmentQueue.record(selectedEnrollment);
                     System.out.println("Course dropped successfully.");
                 } catch (IOException e) {
                     System.out.println("Error saving changes: " + e.getMessage());
@@ -548,7 +738,7 @@ public class Uni {
 
     private static void manageCourse(Faculty faculty) {
         System.out.println("\n===== Manage Course =====");
-        List<Course> teachingCourses = faculty.getCoursesTeaching();
+        List<CourseOffering> teachingCourses = faculty.getCoursesTeaching();
 
         if (teachingCourses.isEmpty()) {
             System.out.println("You are not teaching any courses currently.");
@@ -559,7 +749,7 @@ public class Uni {
 
         System.out.println("Select a course to manage:");
         for (int i = 0; i < teachingCourses.size(); i++) {
-            Course course = teachingCourses.get(i);
+            Course course = teachingCourses.get(i).getCourse();
             System.out.println((i + 1) + ". " + course.getCourseId() + " - " + course.getTitle());
         }
 
@@ -567,7 +757,8 @@ public class Uni {
         int courseChoice = getIntInput();
 
         if (courseChoice > 0 && courseChoice <= teachingCourses.size()) {
-            Course selectedCourse = teachingCourses.get(courseChoice - 1);
+            CourseOffering selectedOffering = teachingCourses.get(courseChoice - 1);
+            Course selectedCourse = selectedOffering.getCourse();
             boolean managingCourse = true;
 
             while (managingCourse) {
@@ -581,7 +772,7 @@ public class Uni {
 
                 switch (choice) {
                     case 1:
-                        viewStudentRoster(selectedCourse);
+                        viewStudentRoster(faculty, selectedOffering);
                         break;
                     case 2:
                         assignGrades(faculty, selectedCourse);
@@ -600,9 +791,9 @@ public class Uni {
         }
     }
 
-    private static void viewStudentRoster(Course course) {
-        System.out.println("\n===== Student Roster for " + course.getTitle() + " =====");
-        List<Student> students = course.getEnrolledStudents();
+    private static void viewStudentRoster(Faculty faculty, CourseOffering offering) {
+        System.out.println("\n===== Student Roster for " + offering.getCourse().getTitle() + " =====");
+        Collection<Student> students = faculty.getStudentRosterView(offering); // Live view, not copied
 
         if (students.isEmpty()) {
             System.out.println("No students enrolled in this course.");
@@ -656,7 +847,7 @@ public class Uni {
             if (isValidGrade(grade)) {
                 try {
                     faculty.assignGrade(selectedEnrollment, grade);
-                    fileManager.saveEnrollments(university);
+                    enrollmentQueue.record(selectedEnrollment);
                     System.out.println("Grade assigned successfully.");
                 } catch (IOException e) {
                     System.out.println("Error saving grade: " + e.getMessage());
@@ -684,7 +875,7 @@ public class Uni {
 
         try {
             faculty.setOfficeHours(officeHours);
-            fileManager.saveUsers(university);
+            journal.saveUser(faculty);
             System.out.println("Office hours updated successfully.");
         } catch (IOException e) {
             System.out.println("Error saving office hours: " + e.getMessage());
@@ -753,7 +944,8 @@ public class Uni {
             newStudent.setAcademicStatus("Active");
 
             university.addUser(newStudent);
-            fileManager.saveUsers(university);
+            reportViews.userAdded(newStudent);
+            journal.saveUser(newStudent);
 
             System.out.println("Student registered successfully with ID: " + newStudent.getUserId());
         } catch (IOException e) {
@@ -882,9 +1074,9 @@ public class Uni {
             newCourse.setSchedule(schedule);
 
             university.addCourse(newCourse);
+            newCourse.setDepartment(selectedDept);
             selectedDept.addCourse(newCourse);
-            fileManager.saveCourses(university);
-            fileManager.saveDepartments(university);
+            journal.saveCourse(newCourse); // The course record links it to the department
 
             System.out.println("Course created successfully: " + courseId + " - " + title);
         } catch (IOException e) {
@@ -966,8 +1158,8 @@ public class Uni {
             selectedCourse.setInstructor(selectedFaculty);
             selectedFaculty.addCourseTeaching(selectedCourse);
 
-            fileManager.saveCourses(university);
-            fileManager.saveUsers(university);
+            journal.saveCourse(selectedCourse);
+            journal.saveUser(selectedFaculty);
 
             System.out.println("Faculty assigned successfully. " + selectedFaculty.getName() +
                     " is now teaching " + selectedCourse.getTitle());
@@ -1079,7 +1271,8 @@ public class Uni {
             newFaculty.setExpertise(expertise);
 
             university.addUser(newFaculty);
-            fileManager.saveUsers(university);
+            reportViews.userAdded(newFaculty);
+            journal.saveUser(newFaculty);
 
             System.out.println("Faculty member added successfully with ID: " + newFaculty.getUserId());
         } catch (IOException e) {
@@ -1157,8 +1350,7 @@ public class Uni {
             selectedDept.addFaculty(selectedFaculty);
             selectedFaculty.setDepartment(selectedDept);
 
-            fileManager.saveUsers(university);
-            fileManager.saveDepartments(university);
+            journal.saveUser(selectedFaculty); // The faculty record links it to the department
 
             System.out.println("Faculty assigned successfully to department: " + selectedDept.getName());
         } catch (IOException e) {
@@ -1203,36 +1395,26 @@ public class Uni {
 
     private static void generateStudentEnrollmentReport() {
         System.out.println("\n===== Student Enrollment Report =====");
-        List<Student> students = university.getAllStudents();
+        int total = reportViews.getStudentCount();
 
-        if (students.isEmpty()) {
+        if (total == 0) {
             System.out.println("No students in the system.");
         } else {
-            System.out.println("Total Students: " + students.size());
-
-            // Count academic status
-            int active = 0;
-            int onProbation = 0;
-            int graduated = 0;
+            System.out.println("Total Students: " + total);
 
-            for (Student student : students) {
-                String status = student.getAcademicStatus();
-                if (status.equalsIgnoreCase("Active")) {
-                    active++;
-                } else if (status.equalsIgnoreCase("On Probation")) {
-                    onProbation++;
-                } else if (status.equalsIgnoreCase("Graduated")) {
-                    graduated++;
-                }
-            }
+            // Academic status counts are maintained by the report views
+            int[] counts = reportViews.getAcademicStatusCounts();
+            int active = counts[StatusCodes.ACTIVE];
+            int onProbation = counts[StatusCodes.ON_PROBATION];
+            int graduated = counts[StatusCodes.GRADUATED];
 
             System.out.println("\nAcademic Status Breakdown:");
             System.out.println("- Active: " + active + " (" +
-                    String.format("%.1f", (double) active / students.size() * 100) + "%)");
+                    String.format("%.1f", (double) active / total * 100) + "%)");
             System.out.println("- On Probation: " + onProbation + " (" +
-                    String.format("%.1f", (double) onProbation / students.size() * 100) + "%)");
+                    String.format("%.1f", (double) onProbation / total * 100) + "%)");
             System.out.println("- Graduated: " + graduated + " (" +
-                    String.format("%.1f", (double) graduated / students.size() * 100) + "%)");
+                    String.format("%.1f", (double) graduated / total * 100) + "%)");
         }
 
         System.out.println("Press Enter to continue...");
@@ -1241,28 +1423,27 @@ public class Uni {
 
     private static void generateCourseRegistrationReport() {
         System.out.println("\n===== Course Registration Report =====");
-        List<Course> courses = university.getAllCourses();
+        List<UniversityReports.CourseFill> fills = reportViews.getCourseFills();
 
-        if (courses.isEmpty()) {
+        if (fills.isEmpty()) {
             System.out.println("No courses in the system.");
         } else {
-            System.out.println("Total Courses: " + courses.size());
-            System.out.println("\nEnrollment by Course:");
-            System.out.println("---------------------------------------------------------");
-            System.out.printf("%-10s %-30s %-10s %-10s\n", "Course ID", "Title", "Enrolled", "Capacity");
-            System.out.println("---------------------------------------------------------");
-
-            for (Course course : courses) {
-                int enrolled = course.getEnrolledStudents().size();
-                int capacity = course.getMaxCapacity();
-                double fillRate = capacity > 0 ? (double) enrolled / capacity * 100 : 0;
-
-                System.out.printf("%-10s %-30s %-10d %-10d (%.1f%%)\n",
-                        course.getCourseId(),
-                        course.getTitle(),
-                        enrolled,
-                        capacity,
-                        fillRate);
+            System.out.println("Total Course Offerings: " + fills.size());
+            System.out.println("\nEnrollment by Course Offering:");
+            System.out.println("---------------------------------------------------------------------");
+            System.out.printf("%-10s %-30s %-12s %-10s %-10s\n", "Course ID", "Title", "Term", "Enrolled",
+                    "Capacity");
+            System.out.println("---------------------------------------------------------------------");
+
+            // Enrolled counts are maintained by the report views, one per term
+            for (UniversityReports.CourseFill fill : fills) {
+                System.out.printf("%-10s %-30s %-12s %-10d %-10d (%.1f%%)\n",
+                        fill.getCourse().getCourseId(),
+                        fill.getCourse().getTitle(),
+                        fill.getOffering().getSemester() + " " + fill.getOffering().getYear(),
+                        fill.getEnrolled(),
+                        fill.getCapacity(),
+                        fill.getFillRate());
             }
         }
 
@@ -1278,29 +1459,22 @@ public class Uni {
             System.out.println("No departments in the system.");
         } else {
             System.out.println("Total Departments: " + departments.size());
+
+            // Member counts are maintained by the report views
+            System.out.println("\nDepartment Summary:");
+            for (ReportViews.DepartmentSummary summary : reportViews.getDepartmentSummaries()) {
+                System.out.printf("%-30s %4d faculty %4d courses%n", summary.getDepartment().getName(),
+                        summary.getFacultyCount(), summary.getCourseCount());
+            }
+
             System.out.println("\nDepartment Details:");
 
-            for (Department dept : departments) {
-                System.out.println("\n" + dept.getName() + " Department:");
-                System.out.println("  Faculty Members: " + dept.getFaculty().size());
-                System.out.println("  Courses Offered: " + dept.getOfferedCourses().size());
-
-                // List faculty
-                if (!dept.getFaculty().isEmpty()) {
-                    System.out.println("  Faculty:");
-                    for (Faculty faculty : dept.getFaculty()) {
-                        System.out.println("  - " + faculty.getName() + " (" + faculty.getExpertise() + ")");
-                    }
-                }
+            // Format each department in parallel
+            ParallelReport.Result<String> result = UniversityReports.departmentDetails(departments);
+            System.out.print(result.getValue());
 
-                // List courses
-                if (!dept.getOfferedCourses().isEmpty()) {
-                    System.out.println("  Courses:");
-                    for (Course course : dept.getOfferedCourses()) {
-                        System.out.println("  - " + course.getCourseId() + ": " + course.getTitle());
-                    }
-                }
-            }
+            System.out.println("\nTimings:");
+            System.out.print(result.getTimingReport());
         }
 
         System.out.println("Press Enter to continue...");
@@ -1401,7 +1575,8 @@ public class Uni {
             }
 
             university.addUser(newUser);
-            fileManager.saveUsers(university);
+            reportViews.userAdded(newUser);
+            journal.saveUser(newUser);
 
             System.out.println("User account created successfully with ID: " + newUser.getUserId());
         } catch (IOException e) {
@@ -1431,7 +1606,8 @@ public class Uni {
         try {
             Department newDept = new Department(name);
             university.addDepartment(newDept);
-            fileManager.saveDepartments(university);
+            reportViews.trackDepartment(newDept);
+            journal.saveDepartment(newDept);
 
             System.out.println("Department created successfully: " + name);
         } catch (IOException e) {
@@ -1556,7 +1732,7 @@ public class Uni {
 
         try {
             currentUser.setPassword(newPassword);
-            fileManager.saveUsers(university);
+            journal.saveUser(currentUser);
             System.out.println("Password changed successfully.");
         } catch (IOException e) {
             System.out.println("Error changing password: " + e.getMessage());
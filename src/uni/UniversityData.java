@@ -0,0 +1,108 @@
+package uni;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Container for a fully linked set of university data as produced by the
+ * persistence loaders
+ */
+public class UniversityData {
+    private final List<Department> departments = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+    private final List<Course> courses = new ArrayList<>();
+    private final List<CourseOffering> offerings = new ArrayList<>();
+    private final List<Enrollment> enrollments = new ArrayList<>();
+    private final PrerequisiteGraph prerequisiteGraph;
+
+    /**
+     * Constructor for UniversityData class with a fresh prerequisite graph
+     */
+    public UniversityData() {
+        this(new PrerequisiteGraph());
+    }
+
+    /**
+     * Constructor for UniversityData class
+     *
+     * @param prerequisiteGraph Prerequisite graph the loaded courses belong to
+     */
+    public UniversityData(PrerequisiteGraph prerequisiteGraph) {
+        this.prerequisiteGraph = prerequisiteGraph;
+    }
+
+    // Getters
+    public List<Department> getDepartments() {
+        return new ArrayList<>(departments); // Return a copy to preserve encapsulation
+    }
+
+    public List<User> getUsers() {
+        return new ArrayList<>(users); // Return a copy to preserve encapsulation
+    }
+
+    public List<Course> getCourses() {
+        return new ArrayList<>(courses); // Return a copy to preserve encapsulation
+    }
+
+    public List<CourseOffering> getOfferings() {
+        return new ArrayList<>(offerings); // Return a copy to preserve encapsulation
+    }
+
+    public List<Enrollment> getEnrollments() {
+        return new ArrayList<>(enrollments); // Return a copy to preserve encapsulation
+    }
+
+    public PrerequisiteGraph getPrerequisiteGraph() {
+        return prerequisiteGraph;
+    }
+
+    /**
+     * Get every student among the loaded users
+     *
+     * @return List of students
+     */
+    public List<Student> getStudents() {
+        List<Student> students = new ArrayList<>();
+        for (User user : users) {
+            if (user instanceof Student) {
+                students.add((Student) user);
+            }
+        }
+        return students;
+    }
+
+    /**
+     * Get every faculty member among the loaded users
+     *
+     * @return List of faculty
+     */
+    public List<Faculty> getFaculty() {
+        List<Faculty> faculty = new ArrayList<>();
+        for (User user : users) {
+            if (user instanceof Faculty) {
+                faculty.add((Faculty) user);
+            }
+        }
+        return faculty;
+    }
+
+    public void addDepartment(Department department) {
+        departments.add(department);
+    }
+
+    public void addUser(User user) {
+        users.add(user);
+    }
+
+    public void addCourse(Course course) {
+        courses.add(course);
+    }
+
+    public void addOffering(CourseOffering offering) {
+        offerings.add(offering);
+    }
+
+    public void addEnrollment(Enrollment enrollment) {
+        enrollments.add(enrollment);
+    }
+}
@@ -0,0 +1,538 @@
+package uni;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Journaled persistence for users, departments, courses and enrollments
+ *
+ * Each save appends a single record for the entity that changed instead of
+ * rewriting the whole data set; {@link #restore()} rebuilds and links the
+ * entities from the latest snapshot plus the journal tail.
+ *
+ * A clean {@link #close()} also writes a {@link BinarySnapshot} of the data,
+ * which the next start loads instead of parsing the journal. The first save
+ * after that deletes it, so it is only used while it matches the journal.
+ */
+public class UniversityJournal {
+    private static final String DEPARTMENT = "department";
+    private static final String USER = "user";
+    private static final String COURSE = "course";
+    private static final String OFFERING = "offering";
+    private static final String ENROLLMENT = "enrollment";
+    private static final int OFFERING_FIELDS = 5;
+    private static final int SCHEDULE_FIELDS = 5;
+
+    private static final int RESTORE_STAGES = 7;
+
+    /**
+     * A record handed from the reading stage to the stage building its kind
+     */
+    private static class Change {
+        final String key;
+        final String[] fields; // Null if the entry was removed
+
+        Change(String key, String[] fields) {
+            this.key = key;
+            this.fields = fields;
+        }
+    }
+
+    private static final Change END = new Change(null, null);
+
+    /**
+     * Entities of one kind with the records they were built from, which the
+     * linking stage reads for cross-references
+     */
+    private static class Loaded<T> {
+        final Map<String, T> entities = new LinkedHashMap<>();
+        final Map<String, String[]> records = new HashMap<>();
+    }
+
+    private final PersistenceJournal journal;
+    private final Path cacheFile;
+    private final Object cacheLock = new Object();
+    private boolean cacheValid; // The binary snapshot matches the journal
+    private long writes;
+    private boolean closed;
+    private volatile String lastLoadTimings = "";
+
+    /**
+     * Constructor for UniversityJournal class
+     *
+     * @param dataDirectory Directory holding the journal files
+     * @throws IOException if the directory cannot be created
+     */
+    public UniversityJournal(Path dataDirectory) throws IOException {
+        this.journal = new PersistenceJournal(dataDirectory, "university");
+        this.cacheFile = dataDirectory.resolve("university.bin");
+        this.cacheValid = Files.exists(cacheFile);
+    }
+
+    /**
+     * Save a department
+     *
+     * @param department Department that changed
+     * @throws IOException if the change cannot be recorded
+     */
+    public void saveDepartment(Department department) throws IOException {
+        beforeWrite();
+        journal.put(DEPARTMENT, department.getDepartmentId(), department.getDepartmentId(), department.getName());
+    }
+
+    /**
+     * Save a user of any type
+     *
+     * @param user User that changed
+     * @throws IOException if the change cannot be recorded
+     */
+    public void saveUser(User user) throws IOException {
+        String[] common = { user.getUserType(), user.getUserId(), user.getUsername(), user.getPassword(),
+                user.getName(), user.getEmail(), user.getContactInfo() };
+        String[] specific;
+
+        if (user instanceof Student) {
+            Student student = (Student) user;
+            specific = new String[] { student.getStudentId(),
+                    student.getAdmissionDate() != null ? student.getAdmissionDate().toString() : null,
+                    student.getAcademicStatus() };
+        } else if (user instanceof Faculty) {
+            Faculty faculty = (Faculty) user;
+            specific = new String[] { faculty.getFacultyId(), departmentId(faculty.getDepartment()),
+                    faculty.getExpertise() };
+        } else if (user instanceof AdminStaff) {
+            AdminStaff staff = (AdminStaff) user;
+            specific = new String[] { staff.getStaffId(), departmentId(staff.getDepartment()), staff.getRole() };
+        } else if (user instanceof SystemAdmin) {
+            SystemAdmin admin = (SystemAdmin) user;
+            specific = new String[] { admin.getAdminId(), String.valueOf(admin.getSecurityLevel()) };
+        } else {
+            throw new IllegalArgumentException("Unknown user type: " + user.getUserType());
+        }
+
+        String[] fields = new String[common.length + specific.length];
+        System.arraycopy(common, 0, fields, 0, common.length);
+        System.arraycopy(specific, 0, fields, common.length, specific.length);
+        beforeWrite();
+        journal.put(USER, user.getUserId(), fields);
+    }
+
+    /**
+     * Remove a user
+     *
+     * @param user User to remove
+     * @throws IOException if the change cannot be recorded
+     */
+    public void removeUser(User user) throws IOException {
+        beforeWrite();
+        journal.remove(USER, user.getUserId());
+    }
+
+    /**
+     * Save a course together with its direct prerequisites
+     *
+     * @param course Course that changed
+     * @throws IOException if the change cannot be recorded
+     */
+    public void saveCourse(Course course) throws IOException {
+        Course[] prerequisites = course.getPrerequisites().toArray(new Course[0]); // One consistent snapshot
+        String[] fields = new String[6 + prerequisites.length];
+        fields[0] = course.getCourseId();
+        fields[1] = course.getTitle();
+        fields[2] = course.getDescription();
+        fields[3] = String.valueOf(course.getCreditHours());
+        fields[4] = String.valueOf(course.getMaxCapacity());
+        fields[5] = departmentId(course.getDepartment());
+        for (int i = 0; i < prerequisites.length; i++) {
+            fields[6 + i] = prerequisites[i].getCourseId();
+        }
+        beforeWrite();
+        journal.put(COURSE, course.getCourseId(), fields);
+    }
+
+    /**
+     * Save a course offering together with its schedules. The schedules are
+     * part of the offering's record, so a removed schedule is not restored.
+     *
+     * @param offering Offering that changed
+     * @throws IOException if the change cannot be recorded
+     */
+    public void saveOffering(CourseOffering offering) throws IOException {
+        List<CourseSchedule> schedules = offering.getSchedules();
+        String[] fields = new String[OFFERING_FIELDS + SCHEDULE_FIELDS * schedules.size()];
+        fields[0] = String.valueOf(offering.getOfferingId());
+        fields[1] = offering.getCourse().getCourseId();
+        fields[2] = offering.getSemester();
+        fields[3] = String.valueOf(offering.getYear());
+        fields[4] = offering.getFaculty() != null ? offering.getFaculty().getFacultyId() : null;
+        int i = OFFERING_FIELDS;
+        for (CourseSchedule schedule : schedules) {
+            fields[i++] = String.valueOf(schedule.getScheduleId());
+            fields[i++] = schedule.getDayOfWeek();
+            fields[i++] = schedule.getStartTime().toString();
+            fields[i++] = schedule.getEndTime().toString();
+            fields[i++] = schedule.getLocation();
+        }
+        beforeWrite();
+        journal.put(OFFERING, fields[0], fields);
+    }
+
+    /**
+     * Remove a course offering
+     *
+     * @param offering Offering to remove
+     * @throws IOException if the change cannot be recorded
+     */
+    public void removeOffering(CourseOffering offering) throws IOException {
+        beforeWrite();
+        journal.remove(OFFERING, String.valueOf(offering.getOfferingId()));
+    }
+
+    /**
+     * Save an enrollment
+     *
+     * @param enrollment Enrollment that changed
+     * @throws IOException if the change cannot be recorded
+     */
+    public void saveEnrollment(Enrollment enrollment) throws IOException {
+        EnrollmentRecord record = EnrollmentRecord.of(enrollment);
+        beforeWrite();
+        journal.put(ENROLLMENT, record.getKey(), record.toFields());
+    }
+
+    /**
+     * Save a batch of enrollment changes with a single journal write, e.g. as
+     * the sink of an {@link EnrollmentWriteBehind} queue
+     *
+     * @param records Latest state of each changed enrollment
+     * @throws IOException if the changes cannot be recorded
+     */
+    public void saveEnrollments(Collection<EnrollmentRecord> records) throws IOException {
+        Map<String, String[]> entries = new LinkedHashMap<>();
+        for (EnrollmentRecord record : records) {
+            entries.put(record.getKey(), record.toFields());
+        }
+        beforeWrite();
+        journal.putAll(ENROLLMENT, entries);
+    }
+
+    /**
+     * Write a snapshot now instead of waiting for the background compactor
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void compact() throws IOException {
+        journal.compact();
+    }
+
+    /**
+     * Compact and close the journal, then write the binary snapshot the next
+     * start loads from
+     *
+     * @throws IOException if the final snapshot cannot be written
+     */
+    public void close() throws IOException {
+        long writesBefore;
+        synchronized (cacheLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (cacheValid) {
+                journal.close();
+                return; // Nothing changed since the snapshot was written
+            }
+            writesBefore = writes;
+        }
+        journal.compact();
+        BinarySnapshot.write(restoreFromJournal(), cacheFile);
+        synchronized (cacheLock) {
+            if (writes == writesBefore) {
+                cacheValid = true;
+            } else {
+                Files.deleteIfExists(cacheFile); // A save raced with the snapshot
+            }
+        }
+        journal.close();
+    }
+
+    /**
+     * Rebuild every entity and link them together. Loads the binary snapshot
+     * written by the last clean close if it is still current; the journal is
+     * then read in the background, ready for the next save.
+     *
+     * @return Restored university data
+     * @throws IOException if any loading stage fails
+     */
+    public UniversityData restore() throws IOException {
+        boolean useCache;
+        synchronized (cacheLock) {
+            useCache = cacheValid;
+        }
+        if (useCache) {
+            long start = System.nanoTime();
+            try {
+                UniversityData data = BinarySnapshot.read(cacheFile);
+                lastLoadTimings = String.format("  %-12s %8.1f ms%n", "snapshot", (System.nanoTime() - start) / 1e6);
+                CompletableFuture.runAsync(this::loadJournalQuietly);
+                return data;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable binary snapshot: " + e.getMessage());
+                beforeWrite(); // Delete it, the journal has the same data
+            }
+        }
+        return restoreFromJournal();
+    }
+
+    /**
+     * Rebuild every entity from the snapshot and journal and link them together.
+     * A reading stage streams the records to one stage per entity kind, so
+     * entities are built while the files are still being read; cross-references
+     * are resolved in a final linking stage.
+     *
+     * @return Restored university data
+     * @throws IOException if any loading stage fails
+     */
+    private UniversityData restoreFromJournal() throws IOException {
+        Map<String, BlockingQueue<Change>> queues = new HashMap<>();
+        for (String kind : new String[] { DEPARTMENT, USER, COURSE, OFFERING, ENROLLMENT }) {
+            queues.put(kind, new LinkedBlockingQueue<>());
+        }
+
+        // Every stage may block on its queue at the same time, so each gets a thread
+        ForkJoinPool pool = new ForkJoinPool(RESTORE_STAGES);
+        try {
+            LoadingPipeline pipeline = new LoadingPipeline(pool);
+            PrerequisiteGraph graph = new PrerequisiteGraph(); // Owned by the restored catalog
+
+            pipeline.stage("reading", () -> {
+                try {
+                    journal.load((kind, key, fields) -> {
+                        BlockingQueue<Change> queue = queues.get(kind);
+                        if (queue != null) {
+                            queue.add(new Change(key, fields));
+                        }
+                    });
+                } finally {
+                    queues.values().forEach(queue -> queue.add(END)); // Release the consumers even on failure
+                }
+                return null;
+            });
+
+            LoadingPipeline.Stage<Loaded<Department>> departments = pipeline.stage("departments",
+                    () -> consume(queues.get(DEPARTMENT), f -> new Department(f[0], f[1])));
+
+            LoadingPipeline.Stage<Loaded<User>> users = pipeline.stage("users",
+                    () -> consume(queues.get(USER), UniversityJournal::restoreUser));
+
+            LoadingPipeline.Stage<Loaded<Course>> courses = pipeline.stage("courses",
+                    () -> consume(queues.get(COURSE), f -> new Course(f[0], f[1], f[2], Integer.parseInt(f[3]),
+                            Integer.parseInt(f[4]), null, graph)));
+
+            // Records of the dependent kinds wait in their queues until the stages they need are done
+            LoadingPipeline.Stage<Loaded<CourseOffering>> offerings = pipeline.stage("offerings",
+                    () -> consume(queues.get(OFFERING), f -> restoreOffering(f, courses.get().entities)), courses);
+
+            LoadingPipeline.Stage<Loaded<Enrollment>> enrollments = pipeline.stage("enrollments", () -> {
+                Map<String, Student> students = new HashMap<>();
+                for (User user : users.get().entities.values()) {
+                    if (user instanceof Student) {
+                        students.put(((Student) user).getStudentId(), (Student) user);
+                    }
+                }
+                Map<String, CourseOffering> offeringsById = offerings.get().entities;
+                return consume(queues.get(ENROLLMENT), f -> {
+                    Student student = students.get(f[1]);
+                    CourseOffering offering = offeringsById.get(f[2]);
+                    if (student == null || offering == null) {
+                        System.err.println("Skipping enrollment of " + f[1] + " in offering " + f[2]);
+                        return null;
+                    }
+                    return new Enrollment(Integer.parseInt(f[0]), student, offering, LocalDate.parse(f[3]), f[4],
+                            f[5]);
+                });
+            }, users, offerings);
+
+            LoadingPipeline.Stage<UniversityData> linked = pipeline.stage("linking",
+                    () -> link(graph, departments.get(), users.get(), courses.get(), offerings.get(),
+                            enrollments.get()),
+                    departments, users, courses, offerings, enrollments);
+
+            pipeline.await();
+            lastLoadTimings = pipeline.getTimingReport();
+            return linked.get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Get the per-stage timings of the most recent {@link #restore()}
+     *
+     * @return Formatted timing report, or an empty string before the first restore
+     */
+    public String getLastLoadTimings() {
+        return lastLoadTimings;
+    }
+
+    /**
+     * Delete the binary snapshot before the journal changes, so a crash never
+     * leaves a snapshot older than the journal behind
+     */
+    private void beforeWrite() throws IOException {
+        synchronized (cacheLock) {
+            if (cacheValid) {
+                Files.deleteIfExists(cacheFile);
+                cacheValid = false;
+            }
+            writes++;
+        }
+    }
+
+    private void loadJournalQuietly() {
+        synchronized (cacheLock) {
+            if (closed) {
+                return; // Closed before the load started
+            }
+        }
+        try {
+            journal.load(null);
+        } catch (IOException e) {
+            // The first save retries the load and reports the error
+            System.err.println("Error loading journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Build entities from the records of one kind until the reading stage
+     * signals the end. A later record for the same key replaces the entity.
+     */
+    private static <T> Loaded<T> consume(BlockingQueue<Change> queue, Function<String[], T> factory)
+            throws InterruptedException {
+        Loaded<T> loaded = new Loaded<>();
+        for (Change change = queue.take(); change != END; change = queue.take()) {
+            T entity = change.fields != null ? factory.apply(change.fields) : null;
+            if (entity == null) {
+                loaded.entities.remove(change.key); // Removed, or skipped as unresolvable
+                loaded.records.remove(change.key);
+            } else {
+                loaded.entities.put(change.key, entity);
+                loaded.records.put(change.key, change.fields);
+            }
+        }
+        return loaded;
+    }
+
+    private static UniversityData link(PrerequisiteGraph graph, Loaded<Department> departments, Loaded<User> users,
+            Loaded<Course> courses, Loaded<CourseOffering> offerings, Loaded<Enrollment> enrollments) {
+        UniversityData data = new UniversityData(graph);
+        Map<String, Department> departmentsById = departments.entities;
+        departmentsById.values().forEach(data::addDepartment);
+
+        Map<String, Faculty> faculty = new HashMap<>();
+        for (Map.Entry<String, User> entry : users.entities.entrySet()) {
+            User user = entry.getValue();
+            String[] f = users.records.get(entry.getKey());
+            String departmentId = f.length > 8 ? f[8] : null;
+            if (user instanceof Faculty) {
+                Faculty member = (Faculty) user;
+                Department department = departmentId != null ? departmentsById.get(departmentId) : null;
+                if (department != null) {
+                    member.setDepartment(department);
+                    department.addFaculty(member);
+                }
+                faculty.put(member.getFacultyId(), member);
+            } else if (user instanceof AdminStaff && departmentId != null) {
+                ((AdminStaff) user).setDepartment(departmentsById.get(departmentId));
+            }
+            data.addUser(user);
+        }
+
+        Map<String, Course> coursesById = courses.entities;
+        for (Map.Entry<String, Course> entry : coursesById.entrySet()) {
+            Course course = entry.getValue();
+            String[] f = courses.records.get(entry.getKey());
+            Department department = f[5] != null ? departmentsById.get(f[5]) : null;
+            if (department != null) {
+                course.setDepartment(department);
+                department.addCourse(course);
+            }
+            for (int i = 6; i < f.length; i++) {
+                Course prerequisite = coursesById.get(f[i]);
+                if (prerequisite != null) {
+                    course.addPrerequisite(prerequisite);
+                }
+            }
+            data.addCourse(course);
+        }
+
+        for (Map.Entry<String, CourseOffering> entry : offerings.entities.entrySet()) {
+            CourseOffering offering = entry.getValue();
+            String facultyId = offerings.records.get(entry.getKey())[4];
+            Faculty instructor = facultyId != null ? faculty.get(facultyId) : null;
+            if (instructor != null) {
+                instructor.assignCourse(offering);
+            }
+            data.addOffering(offering);
+        }
+
+        for (Enrollment enrollment : enrollments.entities.values()) {
+            if (!enrollment.getCourseOffering().addEnrollment(enrollment)) {
+                // The offering is already full; keep the seat count consistent
+                System.err.println("Skipping enrollment over capacity: " + enrollment);
+                continue;
+            }
+            enrollment.getStudent().addEnrollment(enrollment);
+            data.addEnrollment(enrollment);
+        }
+        return data;
+    }
+
+    private static CourseOffering restoreOffering(String[] f, Map<String, Course> courses) {
+        Course course = courses.get(f[1]);
+        if (course == null) {
+            System.err.println("Skipping offering " + f[0] + " of unknown course " + f[1]);
+            return null;
+        }
+        CourseOffering offering = new CourseOffering(Integer.parseInt(f[0]), course, f[2], Integer.parseInt(f[3]));
+        for (int i = OFFERING_FIELDS; i + SCHEDULE_FIELDS <= f.length; i += SCHEDULE_FIELDS) {
+            offering.addSchedule(new CourseSchedule(Integer.parseInt(f[i]), f[i + 1], LocalTime.parse(f[i + 2]),
+                    LocalTime.parse(f[i + 3]), f[i + 4]));
+        }
+        return offering;
+    }
+
+    private static User restoreUser(String[] f) {
+        switch (f[0]) {
+            case "Student":
+                return new Student(f[1], f[2], f[3], f[4], f[5], f[6], f[7],
+                        f[8] != null ? LocalDate.parse(f[8]) : null, f[9]);
+            case "Faculty":
+                return new Faculty(f[1], f[2], f[3], f[4], f[5], f[6], f[7], null, f[9]);
+            case "AdminStaff":
+                return new AdminStaff(f[1], f[2], f[3], f[4], f[5], f[6], f[7], null, f[9]);
+            case "SystemAdmin":
+                return new SystemAdmin(f[1], f[2], f[3], f[4], f[5], f[6], f[7], Integer.parseInt(f[8]));
+            default:
+                throw new IllegalArgumentException("Unknown user type: " + f[0]);
+        }
+    }
+
+    private static String departmentId(Department department) {
+        return department != null ? department.getDepartmentId() : null;
+    }
+}
@@ -0,0 +1,97 @@
+package uni;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report computations behind the administrator report screens, run in
+ * parallel through {@link ParallelReport}
+ */
+public class UniversityReports {
+    private UniversityReports() {
+    }
+
+    /**
+     * Enrollment numbers for one course offering
+     */
+    public static class CourseFill {
+        private final CourseOffering offering;
+        private final int enrolled;
+
+        /**
+         * Constructor for CourseFill class
+         *
+         * @param offering Course offering reported on
+         * @param enrolled Number of students currently enrolled in it
+         */
+        public CourseFill(CourseOffering offering, int enrolled) {
+            this.offering = offering;
+            this.enrolled = enrolled;
+        }
+
+        public CourseOffering getOffering() {
+            return offering;
+        }
+
+        public Course getCourse() {
+            return offering.getCourse();
+        }
+
+        public int getEnrolled() {
+            return enrolled;
+        }
+
+        public int getCapacity() {
+            return offering.getCourse().getMaxCapacity();
+        }
+
+        /**
+         * Get the share of the capacity that is taken
+         *
+         * @return Fill rate in percent
+         */
+        public double getFillRate() {
+            int capacity = getCapacity();
+            return capacity > 0 ? (double) enrolled / capacity * 100 : 0;
+        }
+    }
+
+    /**
+     * Format the details of every department, one partition per department.
+     * Each department's faculty and course lists are snapshotted once, so the
+     * counts always match the members listed under them.
+     *
+     * @param departments Departments to report on
+     * @return Report text for all departments, in input order
+     */
+    public static ParallelReport.Result<String> departmentDetails(List<Department> departments) {
+        return ParallelReport.run(departments, Department::getName, dept -> {
+            List<Faculty> faculty = new ArrayList<>(dept.getFaculty());
+            List<Course> courses = new ArrayList<>(dept.getOfferedCourses());
+
+            StringBuilder details = new StringBuilder();
+            details.append("\n").append(dept.getName()).append(" Department:\n");
+            details.append("  Faculty Members: ").append(faculty.size()).append("\n");
+            details.append("  Courses Offered: ").append(courses.size()).append("\n");
+
+            // List faculty
+            if (!faculty.isEmpty()) {
+                details.append("  Faculty:\n");
+                for (Faculty member : faculty) {
+                    details.append("  - ").append(member.getName()).append(" (").append(member.getExpertise())
+                            .append(")\n");
+                }
+            }
+
+            // List courses
+            if (!courses.isEmpty()) {
+                details.append("  Courses:\n");
+                for (Course course : courses) {
+                    details.append("  - ").append(course.getCourseId()).append(": ").append(course.getTitle())
+                            .append("\n");
+                }
+            }
+            return details.toString();
+        }, String::concat, "");
+    }
+}
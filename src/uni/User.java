@@ -10,6 +10,7 @@ public abstract class User {
     private String name;
     private String email;
     private String contactInfo;
+    private volatile UserDirectory directory; // Directory indexing this user, if any
 
     /**
      * Constructor for User class
@@ -36,7 +37,12 @@ public abstract class User {
     }
 
     public void setUserId(String userId) {
-        this.userId = userId;
+        UserDirectory current = directory;
+        if (current != null) {
+            current.reindexUserId(this, userId, () -> this.userId = userId);
+        } else {
+            this.userId = userId;
+        }
     }
 
     public String getUsername() {
@@ -44,7 +50,12 @@ public abstract class User {
     }
 
     public void setUsername(String username) {
-        this.username = username;
+        UserDirectory current = directory;
+        if (current != null) {
+            current.reindexUsername(this, username, () -> this.username = username);
+        } else {
+            this.username = username;
+        }
     }
 
     public String getPassword() {
@@ -72,7 +83,12 @@ public abstract class User {
     }
 
     public void setEmail(String email) {
-        this.email = email;
+        UserDirectory current = directory;
+        if (current != null) {
+            current.reindexEmail(this, email, () -> this.email = email);
+        } else {
+            this.email = email;
+        }
     }
 
     public String getContactInfo() {
@@ -83,6 +99,14 @@ public abstract class User {
         this.contactInfo = contactInfo;
     }
 
+    UserDirectory getDirectory() {
+        return directory;
+    }
+
+    void setDirectory(UserDirectory directory) {
+        this.directory = directory;
+    }
+
     /**
      * Check if login credentials are valid
      * 
@@ -113,7 +137,7 @@ public abstract class User {
             this.name = name;
         }
         if (email != null) {
-            this.email = email;
+            setEmail(email);
         }
         if (contactInfo != null) {
             this.contactInfo = contactInfo;
@@ -0,0 +1,238 @@
+package uni;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of system users with hash indexes by username, email and user ID
+ *
+ * Users added to a directory report changes to their username, email and user
+ * ID back to it, so every lookup stays O(1) no matter how many accounts exist.
+ * Lookups are lock-free; changes are serialized on the directory.
+ */
+public class UserDirectory {
+    private final Map<String, User> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, User> byUserId = new ConcurrentHashMap<>();
+    private final Map<String, List<User>> byEmail = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Callback for users joining or leaving the directory
+     */
+    public interface Listener {
+        void userAdded(User user);
+
+        void userRemoved(User user);
+    }
+
+    /**
+     * Register a listener notified when users are added or removed
+     *
+     * @param listener Listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Add a user to the directory
+     *
+     * @param user User to add
+     * @return true if addition successful, false if the username or user ID is taken
+     */
+    public synchronized boolean addUser(User user) {
+        if (user.getDirectory() != null) {
+            return false; // Already registered in a directory
+        }
+        if (byUsername.containsKey(user.getUsername()) || byUserId.containsKey(user.getUserId())) {
+            return false; // Username or user ID already exists
+        }
+
+        byUsername.put(user.getUsername(), user);
+        byUserId.put(user.getUserId(), user);
+        indexEmail(user, user.getEmail());
+        user.setDirectory(this);
+        for (Listener listener : listeners) {
+            listener.userAdded(user);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a user from the directory
+     *
+     * @param user User to remove
+     * @return true if removal successful, false otherwise
+     */
+    public synchronized boolean removeUser(User user) {
+        if (user.getDirectory() != this) {
+            return false; // Not in this directory
+        }
+
+        byUsername.remove(user.getUsername());
+        byUserId.remove(user.getUserId());
+        unindexEmail(user, user.getEmail());
+        user.setDirectory(null);
+        for (Listener listener : listeners) {
+            listener.userRemoved(user);
+        }
+        return true;
+    }
+
+    /**
+     * Check login credentials
+     *
+     * @param username Username to check
+     * @param password Password to check
+     * @return Matching user, or null if the credentials are invalid
+     */
+    public User authenticateUser(String username, String password) {
+        User user = findUserByUsername(username);
+        return user != null && user.login(username, password) ? user : null;
+    }
+
+    /**
+     * Find a user by username
+     *
+     * @param username Username to look up
+     * @return User, or null if not found
+     */
+    public User findUserByUsername(String username) {
+        return username != null ? byUsername.get(username) : null;
+    }
+
+    /**
+     * Find a user by username, provided the email also matches
+     *
+     * @param username Username to look up
+     * @param email    Email the user must have
+     * @return User, or null if not found or the email does not match
+     */
+    public User findUserByUsernameAndEmail(String username, String email) {
+        User user = findUserByUsername(username);
+        return user != null && user.getEmail() != null && user.getEmail().equals(email) ? user : null;
+    }
+
+    /**
+     * Find a user by user ID
+     *
+     * @param userId User ID to look up
+     * @return User, or null if not found
+     */
+    public User findUserById(String userId) {
+        return userId != null ? byUserId.get(userId) : null;
+    }
+
+    /**
+     * Find every user registered with an email address
+     *
+     * @param email Email to look up
+     * @return List of users, empty if none
+     */
+    public List<User> findUsersByEmail(String email) {
+        List<User> users = email != null ? byEmail.get(email) : null;
+        return users != null ? new ArrayList<>(users) : new ArrayList<>();
+    }
+
+    /**
+     * Get every registered user
+     *
+     * @return List of users
+     */
+    public List<User> getAllUsers() {
+        return new ArrayList<>(byUserId.values());
+    }
+
+    public int size() {
+        return byUserId.size();
+    }
+
+    /**
+     * Move a user to a new username. Called by {@link User#setUsername(String)},
+     * which passes the field write so it happens before the index changes.
+     *
+     * @throws IllegalArgumentException if the username is taken
+     */
+    synchronized void reindexUsername(User user, String newUsername, Runnable write) {
+        if (user.getDirectory() != this) {
+            write.run(); // Removed from the directory meanwhile
+            return;
+        }
+        if (newUsername == null) {
+            throw new IllegalArgumentException("Username cannot be empty");
+        }
+        String oldUsername = user.getUsername();
+        if (newUsername.equals(oldUsername)) {
+            return;
+        }
+        if (byUsername.containsKey(newUsername)) {
+            throw new IllegalArgumentException("Username already exists");
+        }
+        write.run();
+        byUsername.put(newUsername, user);
+        byUsername.remove(oldUsername);
+    }
+
+    /**
+     * Move a user to a new user ID. Called by {@link User#setUserId(String)},
+     * which passes the field write so it happens before the index changes.
+     *
+     * @throws IllegalArgumentException if the user ID is taken
+     */
+    synchronized void reindexUserId(User user, String newUserId, Runnable write) {
+        if (user.getDirectory() != this) {
+            write.run(); // Removed from the directory meanwhile
+            return;
+        }
+        if (newUserId == null) {
+            throw new IllegalArgumentException("User ID cannot be empty");
+        }
+        String oldUserId = user.getUserId();
+        if (newUserId.equals(oldUserId)) {
+            return;
+        }
+        if (byUserId.containsKey(newUserId)) {
+            throw new IllegalArgumentException("User ID already exists");
+        }
+        write.run();
+        byUserId.put(newUserId, user);
+        byUserId.remove(oldUserId);
+    }
+
+    /**
+     * Move a user to a new email. Called by {@link User#setEmail(String)},
+     * which passes the field write so it happens before the index changes.
+     */
+    synchronized void reindexEmail(User user, String newEmail, Runnable write) {
+        if (user.getDirectory() != this) {
+            write.run(); // Removed from the directory meanwhile
+            return;
+        }
+        String oldEmail = user.getEmail();
+        write.run();
+        unindexEmail(user, oldEmail);
+        indexEmail(user, newEmail);
+    }
+
+    private void indexEmail(User user, String email) {
+        if (email != null) {
+            byEmail.computeIfAbsent(email, e -> new CopyOnWriteArrayList<>()).add(user);
+        }
+    }
+
+    private void unindexEmail(User user, String email) {
+        if (email == null) {
+            return;
+        }
+        List<User> users = byEmail.get(email);
+        if (users != null) {
+            users.remove(user);
+            if (users.isEmpty()) {
+                byEmail.remove(email);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package uni;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Promotes waitlisted students into freed seats in the background
+ *
+ * A withdrawal only schedules the promotion, so the withdrawing request does
+ * not wait for it. Each offering is drained by at most one task at a time,
+ * which keeps promotions in FIFO order.
+ */
+public class WaitlistPromoter {
+    /**
+     * Notified on the promoter thread after a waitlisted student was enrolled
+     */
+    public interface PromotionListener {
+        void promoted(Enrollment enrollment);
+    }
+
+    private static WaitlistPromoter instance;
+
+    private final ExecutorService executor;
+    private final List<PromotionListener> promotionListeners = new CopyOnWriteArrayList<>();
+
+    // Throughput metrics
+    private final AtomicLong promotions = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong firstPromotionNanos = new AtomicLong();
+    private final AtomicLong lastPromotionNanos = new AtomicLong();
+
+    private WaitlistPromoter() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "waitlist-promoter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the singleton instance of WaitlistPromoter
+     * 
+     * @return WaitlistPromoter instance
+     */
+    public static synchronized WaitlistPromoter getInstance() {
+        if (instance == null) {
+            instance = new WaitlistPromoter();
+        }
+        return instance;
+    }
+
+    /**
+     * Schedule promotion for an offering that may have free seats. Does nothing
+     * if a promotion task for the offering is already running.
+     * 
+     * @param offering Offering to promote into
+     */
+    public void schedule(CourseOffering offering) {
+        if (offering.startPromotion()) {
+            executor.execute(() -> promote(offering));
+        }
+    }
+
+    /**
+     * Register a listener for promotions, e.g. to persist the new enrollments
+     * 
+     * @param listener Listener to add
+     */
+    public void addPromotionListener(PromotionListener listener) {
+        promotionListeners.add(listener);
+    }
+
+    /**
+     * Unregister a promotion listener
+     * 
+     * @param listener Listener to remove
+     * @return true if the listener was registered
+     */
+    public boolean removePromotionListener(PromotionListener listener) {
+        return promotionListeners.remove(listener);
+    }
+
+    // Metrics
+    public long getPromotions() {
+        return promotions.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * Get the promotion rate between the first and the latest promotion
+     * 
+     * @return Promotions per second
+     */
+    public double getPromotionsPerSecond() {
+        long count = promotions.get();
+        long elapsed = lastPromotionNanos.get() - firstPromotionNanos.get();
+        return count > 1 && elapsed > 0 ? (count - 1) * 1e9 / elapsed : 0.0;
+    }
+
+    /**
+     * Reset the metrics, e.g. before a load test
+     */
+    public void resetMetrics() {
+        promotions.set(0);
+        skipped.set(0);
+        firstPromotionNanos.set(0);
+        lastPromotionNanos.set(0);
+    }
+
+    private void promote(CourseOffering offering) {
+        try {
+            while (offering.getAvailableSeats() > 0) {
+                Student student = offering.pollWaitlist();
+                if (student == null) {
+                    break;
+                }
+
+                if (student.registerForCourse(offering)) {
+                    long now = System.nanoTime();
+                    firstPromotionNanos.compareAndSet(0, now);
+                    lastPromotionNanos.set(now);
+                    promotions.incrementAndGet();
+                    firePromoted(offering.getEnrollmentForStudent(student));
+                } else if (offering.getAvailableSeats() <= 0) {
+                    offering.requeueWaitlist(student); // Lost the seat to a direct registration
+                    break;
+                } else {
+                    skipped.incrementAndGet(); // No longer eligible (prerequisites, already enrolled)
+                }
+            }
+        } finally {
+            offering.finishPromotion();
+        }
+
+        // A seat may have been freed after the loop ended but before the flag was cleared
+        if (offering.getAvailableSeats() > 0 && offering.getWaitlistSize() > 0) {
+            schedule(offering);
+        }
+    }
+
+    private void firePromoted(Enrollment enrollment) {
+        if (enrollment == null) {
+            return; // Dropped again before the listeners ran
+        }
+        for (PromotionListener listener : promotionListeners) {
+            try {
+                listener.promoted(enrollment);
+            } catch (RuntimeException e) {
+                // One failing listener must not stop the drain
+                System.err.println("Error in promotion listener: " + e.getMessage());
+            }
+        }
+    }
+}
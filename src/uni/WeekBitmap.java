@@ -0,0 +1,179 @@
+package uni;
+
+import java.util.Arrays;
+
+/**
+ * Packed bitmap of the week in 5-minute slots
+ *
+ * The 2016 slots of a week fit in 32 longs, so checking two timetables for
+ * overlap is a handful of AND operations. A meeting occupies every slot from
+ * the one containing its start to the one containing its end, so meetings
+ * that touch share a slot, matching the closed intervals of
+ * {@link CourseSchedule#conflictsWith(CourseSchedule)}. Meetings that only
+ * share a partly used slot also intersect, so callers confirm a hit with an
+ * exact check.
+ */
+public class WeekBitmap {
+    public static final int SLOT_MINUTES = 5;
+    public static final int SLOTS = 7 * 24 * 60 / SLOT_MINUTES;
+
+    private final long[] words = new long[(SLOTS + 63) / 64];
+    private boolean unplaced; // Holds a meeting whose day is not on the week, so it has no slots
+
+    /**
+     * Build the bitmap of a set of meeting times
+     * 
+     * @param schedules Meeting times
+     * @return Bitmap with their slots set
+     */
+    public static WeekBitmap of(Iterable<CourseSchedule> schedules) {
+        WeekBitmap bitmap = new WeekBitmap();
+        for (CourseSchedule schedule : schedules) {
+            bitmap.add(schedule);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Mark the slots of a meeting as taken. A meeting whose day is not
+     * recognized has no slots; it makes this bitmap intersect any other one
+     * holding such a meeting, and callers confirm exactly.
+     * 
+     * @param schedule Meeting time
+     */
+    public void add(CourseSchedule schedule) {
+        if (!schedule.isPlaced()) {
+            unplaced = true;
+            return;
+        }
+        set(schedule.getStartMinuteOfWeek() / SLOT_MINUTES, schedule.getEndMinuteOfWeek() / SLOT_MINUTES);
+    }
+
+    /**
+     * Mark a range of slots as taken
+     * 
+     * @param fromSlot First slot
+     * @param toSlot   Last slot, inclusive
+     */
+    public void set(int fromSlot, int toSlot) {
+        if (fromSlot < 0 || toSlot >= SLOTS || fromSlot > toSlot) {
+            throw new IllegalArgumentException("Invalid slot range: " + fromSlot + "-" + toSlot);
+        }
+        int firstWord = fromSlot >>> 6;
+        int lastWord = toSlot >>> 6;
+        long firstMask = -1L << (fromSlot & 63);
+        long lastMask = -1L >>> (63 - (toSlot & 63));
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    /**
+     * Check if a slot is taken
+     * 
+     * @param slot Slot index
+     * @return true if taken, false otherwise
+     */
+    public boolean get(int slot) {
+        return (words[slot >>> 6] & (1L << (slot & 63))) != 0;
+    }
+
+    /**
+     * Check if any slot is taken in both bitmaps
+     * 
+     * @param other Bitmap to compare with
+     * @return true if the bitmaps overlap, false otherwise
+     */
+    public boolean intersects(WeekBitmap other) {
+        if (unplaced && other.unplaced) {
+            return true;
+        }
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if every slot taken here is also taken in another bitmap
+     * 
+     * @param other Bitmap to compare with
+     * @return true if this bitmap is contained in the other, false otherwise
+     */
+    public boolean isSubsetOf(WeekBitmap other) {
+        if (unplaced && !other.unplaced) {
+            return false;
+        }
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & ~other.words[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Take every slot taken in another bitmap
+     * 
+     * @param other Bitmap to merge in
+     */
+    public void or(WeekBitmap other) {
+        unplaced |= other.unplaced;
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * Free every slot
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+        unplaced = false;
+    }
+
+    public boolean isEmpty() {
+        if (unplaced) {
+            return false;
+        }
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count the taken slots
+     * 
+     * @return Number of taken slots
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Copy this bitmap
+     * 
+     * @return Independent copy
+     */
+    public WeekBitmap copy() {
+        WeekBitmap copy = new WeekBitmap();
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        copy.unplaced = unplaced;
+        return copy;
+    }
+}
@@ -0,0 +1,78 @@
+package uni;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests that the columnar store and the student's running totals agree on GPA
+ */
+public class EnrollmentStoreTest {
+    private static final double EPSILON = 1e-9;
+
+    private final PrerequisiteGraph graph = new PrerequisiteGraph();
+
+    private CourseOffering offering(int id, int creditHours) {
+        return Fixtures.offering(graph, id, creditHours);
+    }
+
+    private static Enrollment enroll(Student student, CourseOffering offering) {
+        student.registerForCourse(offering);
+        return student.getEnrollments().get(student.getEnrollments().size() - 1);
+    }
+
+    private static void assertSameGpa(Student student, EnrollmentStore store) {
+        for (Enrollment enrollment : student.getEnrollments()) {
+            store.record(enrollment);
+        }
+        assertEquals(student.calculateGPA(), store.calculateGPA(student.getStudentId()), EPSILON);
+        Double all = store.calculateAllGPAs().get(student.getStudentId());
+        assertEquals(student.calculateGPA(), all != null ? all : 0.0, EPSILON);
+    }
+
+    @Test
+    public void nonLetterGradeCountsCreditsWithoutPoints() {
+        Student student = Fixtures.student("S1");
+        enroll(student, offering(1, 3)).complete("A");
+        enroll(student, offering(2, 4)).complete("P"); // Not a letter grade
+        enroll(student, offering(3, 2)).complete("C+");
+
+        assertEquals(9, student.getGpaCredits());
+        assertEquals((40 * 3 + 23 * 2) / 10.0 / 9, student.calculateGPA(), EPSILON);
+        assertSameGpa(student, new EnrollmentStore());
+    }
+
+    @Test
+    public void creditHourChangeReachesBoth() {
+        Student student = Fixtures.student("S4");
+        CourseOffering changed = offering(1, 3);
+        enroll(student, changed).complete("A");
+        enroll(student, offering(2, 3)).complete("C");
+        EnrollmentStore store = new EnrollmentStore();
+        assertSameGpa(student, store);
+
+        changed.getCourse().setCreditHours(1);
+        assertEquals((40 * 1 + 20 * 3) / 10.0 / 4, student.calculateGPA(), EPSILON);
+        assertEquals(student.calculateGPA(), store.calculateGPA(student.getStudentId()), EPSILON);
+    }
+
+    @Test
+    public void failedAndWithdrawnCoursesAgree() {
+        Student student = Fixtures.student("S2");
+        enroll(student, offering(1, 3)).complete("F");
+        enroll(student, offering(2, 3)).complete("B-");
+        enroll(student, offering(3, 3)).withdraw();
+        enroll(student, offering(4, 3)); // Still enrolled
+
+        assertSameGpa(student, new EnrollmentStore());
+    }
+
+    @Test
+    public void onlyNonLetterGradesGiveZero() {
+        Student student = Fixtures.student("S3");
+        enroll(student, offering(1, 3)).complete("I");
+
+        assertEquals(0.0, student.calculateGPA(), EPSILON);
+        assertSameGpa(student, new EnrollmentStore());
+    }
+}
@@ -0,0 +1,139 @@
+package uni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for crash recovery in EnrollmentWriteBehind
+ */
+public class EnrollmentWriteBehindTest {
+
+    /**
+     * DAO that records the batches it is given instead of touching a database
+     */
+    private static class RecordingDAO extends EnrollmentDAO {
+        final List<List<EnrollmentRecord>> batches = new ArrayList<>();
+        boolean failing;
+
+        RecordingDAO() {
+            super(null);
+        }
+
+        @Override
+        public int upsertAll(Collection<EnrollmentRecord> records) throws SQLException {
+            if (failing) {
+                throw new SQLException("database is locked");
+            }
+            batches.add(new ArrayList<>(records));
+            return records.size();
+        }
+    }
+
+    private Path dir;
+    private Path logFile;
+    private RecordingDAO dao;
+    private EnrollmentWriteBehind queue;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("write-behind");
+        logFile = dir.resolve("enrollments.log");
+        dao = new RecordingDAO();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (queue != null) {
+            dao.failing = false;
+            queue.close();
+        }
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(dir.resolve("enrollments.log.flushing"));
+        Files.deleteIfExists(dir);
+    }
+
+    private static Enrollment enrollment(String grade, String status) {
+        CourseOffering offering = Fixtures.offering(new PrerequisiteGraph(), 7, 3);
+        return new Enrollment(0, Fixtures.student("S1"), offering, LocalDate.of(2024, 9, 1), grade, status);
+    }
+
+    @Test
+    public void recoverReplaysLogLeftByCrash() throws IOException {
+        EnrollmentRecord first = new EnrollmentRecord(1, "S1", 7, LocalDate.of(2024, 9, 1), null, "Enrolled");
+        EnrollmentRecord latest = new EnrollmentRecord(1, "S1", 7, LocalDate.of(2024, 9, 1), "A", "Completed");
+        EnrollmentRecord other = new EnrollmentRecord(2, "S2", 7, LocalDate.of(2024, 9, 2), null, "Enrolled");
+        String torn = new EnrollmentRecord(3, "S3", 7, LocalDate.of(2024, 9, 3), null, "Enrolled").toLogLine();
+        Files.write(logFile, Arrays.asList(first.toLogLine(), other.toLogLine(), latest.toLogLine(),
+                torn.substring(0, torn.length() - 4)), StandardCharsets.UTF_8);
+
+        queue = new EnrollmentWriteBehind(dao, logFile, 100, 60000);
+        assertEquals(2, queue.recover()); // Torn last line is skipped, S1 coalesced
+
+        assertEquals(1, dao.batches.size());
+        List<EnrollmentRecord> batch = dao.batches.get(0);
+        assertEquals("S1", batch.get(0).getStudentId());
+        assertEquals("A", batch.get(0).getGrade());
+        assertEquals("Completed", batch.get(0).getStatus());
+        assertEquals("S2", batch.get(1).getStudentId());
+        assertFalse(Files.exists(dir.resolve("enrollments.log.flushing")));
+    }
+
+    @Test
+    public void logLineKeepsSeparatorsAndDashes() {
+        EnrollmentRecord record = new EnrollmentRecord(4, "S\t4", 7, LocalDate.of(2024, 9, 1), "-", "On\nhold");
+        EnrollmentRecord parsed = EnrollmentRecord.fromLogLine(record.toLogLine());
+
+        assertEquals("S\t4", parsed.getStudentId());
+        assertEquals("-", parsed.getGrade());
+        assertEquals("On\nhold", parsed.getStatus());
+    }
+
+    @Test
+    public void failedFlushIsReplayedByNextRun() throws IOException {
+        queue = new EnrollmentWriteBehind(dao, logFile, 100, 60000);
+        queue.record(enrollment("B+", "Completed"));
+
+        dao.failing = true;
+        try {
+            queue.flush();
+            fail("Flush should report the failed batch");
+        } catch (IOException expected) {
+            // The rotated log is kept for the next run
+        }
+        assertTrue(Files.exists(dir.resolve("enrollments.log.flushing")));
+        try {
+            queue.close();
+            fail("Close should report the failed final flush");
+        } catch (IOException expected) {
+            // The first run ends with the batch still unsaved
+        }
+
+        // Simulate a restart: the new queue finds the rotated log and replays it
+        RecordingDAO restarted = new RecordingDAO();
+        EnrollmentWriteBehind next = new EnrollmentWriteBehind(restarted, logFile, 100, 60000);
+        try {
+            assertEquals(1, next.recover());
+            assertEquals("B+", restarted.batches.get(0).get(0).getGrade());
+        } finally {
+            next.close();
+        }
+        assertTrue(dao.batches.isEmpty());
+    }
+}
@@ -0,0 +1,36 @@
+package uni;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Factories for the students and offerings the tests build on
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Student student(String studentId) {
+        return new Student("u-" + studentId, studentId, "secret", "Student", "s@uni.edu", "", studentId,
+                LocalDate.now(), "Active");
+    }
+
+    /**
+     * Offering without meetings, so it never clashes with another one
+     */
+    static CourseOffering offering(PrerequisiteGraph graph, int id, int creditHours) {
+        Course course = new Course("C" + id, "Course " + id, "", creditHours, 30, null, graph);
+        return new CourseOffering(id, course, "Fall", 2024);
+    }
+
+    /**
+     * Offering of a three-credit course meeting once a week for 50 minutes
+     */
+    static CourseOffering offering(PrerequisiteGraph graph, int id, String day, int startHour) {
+        CourseOffering offering = offering(graph, id, 3);
+        offering.addSchedule(new CourseSchedule(id, day, LocalTime.of(startHour, 0), LocalTime.of(startHour, 50),
+                "Room " + id));
+        return offering;
+    }
+}
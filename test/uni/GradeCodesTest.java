@@ -0,0 +1,102 @@
+package uni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that the byte-coded grades match, and outrun, the string grades they
+ * replace
+ */
+public class GradeCodesTest {
+    private static final String[] GRADES = { "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F" };
+    private static final int COUNT = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Grade points the way Student converted them before grades were encoded
+     */
+    private static int stringPointTenths(String grade) {
+        switch (grade) {
+            case "A":
+                return 40;
+            case "A-":
+                return 37;
+            case "B+":
+                return 33;
+            case "B":
+                return 30;
+            case "B-":
+                return 27;
+            case "C+":
+                return 23;
+            case "C":
+                return 20;
+            case "C-":
+                return 17;
+            case "D+":
+                return 13;
+            case "D":
+                return 10;
+            default:
+                return 0;
+        }
+    }
+
+    private static long sumStrings(String[] grades) {
+        long sum = 0;
+        for (String grade : grades) {
+            sum += stringPointTenths(grade);
+        }
+        return sum;
+    }
+
+    private static long sumCodes(byte[] codes) {
+        long sum = 0;
+        for (byte code : codes) {
+            sum += GradeCodes.pointTenths(code);
+        }
+        return sum;
+    }
+
+    @Test
+    public void codesRoundTripAndAgreeOnPoints() {
+        for (String grade : GRADES) {
+            byte code = GradeCodes.encode(grade);
+            assertEquals(grade, GradeCodes.decode(code));
+            assertEquals(stringPointTenths(grade), GradeCodes.pointTenths(code));
+        }
+    }
+
+    @Test
+    public void codedPointsAreFasterThanStringSwitch() {
+        Random random = new Random(15);
+        String[] grades = new String[COUNT];
+        byte[] codes = new byte[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            // Fresh strings, as read from storage, so no hash code is cached yet
+            grades[i] = new String(GRADES[random.nextInt(GRADES.length)]);
+            codes[i] = GradeCodes.encode(grades[i]);
+        }
+
+        long stringNanos = Long.MAX_VALUE;
+        long codeNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) { // Best of several rounds, the first ones warm up
+            long start = System.nanoTime();
+            long fromStrings = sumStrings(grades);
+            stringNanos = Math.min(stringNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long fromCodes = sumCodes(codes);
+            codeNanos = Math.min(codeNanos, System.nanoTime() - start);
+
+            assertEquals(fromStrings, fromCodes);
+        }
+
+        assertTrue(String.format("Codes took %.1f ms, strings %.1f ms", codeNanos / 1e6, stringNanos / 1e6),
+                codeNanos < stringNanos);
+    }
+}
@@ -0,0 +1,185 @@
+package uni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for ScheduleSolver
+ */
+public class ScheduleSolverTest {
+
+    private static List<Room> rooms(Random random, int count) {
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rooms.add(new Room("R" + i, 20 + random.nextInt(100)));
+        }
+        return rooms;
+    }
+
+    private static List<CourseOffering> offerings(Random random, int count, List<Faculty> faculty) {
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        List<CourseOffering> offerings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Course course = new Course("SS" + i, "Course " + i, "", 3, 10 + random.nextInt(80), null, graph);
+            CourseOffering offering = new CourseOffering(i, course, "Fall", 2024);
+            faculty.get(random.nextInt(faculty.size())).assignCourse(offering);
+            offerings.add(offering);
+        }
+        return offerings;
+    }
+
+    private static List<Faculty> faculty(int count) {
+        List<Faculty> faculty = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            faculty.add(new Faculty("f" + i, "f" + i, "secret", "Faculty " + i, "", "", "F" + i, null, ""));
+        }
+        return faculty;
+    }
+
+    private static void assertNoClashes(List<CourseOffering> offerings, List<Room> rooms) {
+        List<CourseSchedule> all = new ArrayList<>();
+        for (CourseOffering offering : offerings) {
+            for (CourseSchedule schedule : offering.getSchedules()) {
+                Room room = rooms.stream().filter(r -> r.getRoomId().equals(schedule.getLocation())).findFirst()
+                        .orElseThrow();
+                assertTrue("Room too small", room.getCapacity() >= offering.getCourse().getMaxCapacity());
+                all.add(schedule);
+            }
+        }
+        for (int i = 0; i < all.size(); i++) {
+            for (int j = i + 1; j < all.size(); j++) {
+                CourseSchedule a = all.get(i);
+                CourseSchedule b = all.get(j);
+                if (!a.conflictsWith(b)) {
+                    continue;
+                }
+                assertFalse("Room double-booked", a.getLocation().equals(b.getLocation()));
+                Faculty fa = a.getOffering().getFaculty();
+                assertFalse("Instructor double-booked", a.getOffering() != b.getOffering() && fa != null
+                        && fa == b.getOffering().getFaculty());
+            }
+        }
+    }
+
+    @Test
+    public void placesEveryOfferingWithoutClashes() {
+        Random random = new Random(1);
+        List<Room> rooms = rooms(random, 20);
+        List<Faculty> faculty = faculty(60);
+        List<CourseOffering> offerings = offerings(random, 200, faculty);
+
+        ScheduleSolver solver = new ScheduleSolver(rooms);
+        WeekBitmap mornings = new WeekBitmap();
+        for (int day = 0; day < 7; day++) {
+            mornings.set((day * 24 + 8) * 12, (day * 24 + 12) * 12);
+        }
+        solver.setAvailability(faculty.get(0), mornings);
+
+        ScheduleSolver.Solution solution = solver.solve(offerings, 1);
+        assertTrue(solution.isComplete());
+        assertTrue(solution.apply().isEmpty());
+        assertNoClashes(offerings, rooms);
+        for (CourseOffering offering : faculty.get(0).getCoursesTeaching()) {
+            for (CourseSchedule schedule : offering.getSchedules()) {
+                assertFalse(schedule.getEndTime().isAfter(LocalTime.of(12, 0)));
+            }
+        }
+    }
+
+    @Test
+    public void placesThousandsOfSectionsWithinSeconds() {
+        Random random = new Random(3);
+        List<Room> rooms = rooms(random, 200);
+        List<CourseOffering> offerings = offerings(random, 3000, faculty(1000));
+
+        long start = System.nanoTime();
+        ScheduleSolver.Solution solution = new ScheduleSolver(rooms).solve(offerings, 1);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(solution.isComplete());
+        assertTrue("Solving 3000 sections took " + millis + " ms", millis < 5000);
+        assertTrue(solution.apply().isEmpty());
+        assertNoClashes(offerings, rooms);
+    }
+
+    @Test
+    public void applySkipsOfferingsThatGainedStudents() {
+        Random random = new Random(4);
+        List<CourseOffering> offerings = offerings(random, 10, faculty(5));
+        ScheduleSolver.Solution solution = new ScheduleSolver(rooms(random, 5)).solve(offerings, 1);
+        assertTrue(solution.isComplete());
+
+        Student student = new Student("s", "s", "secret", "S", "", "", "S1", LocalDate.now(), "Active");
+        assertTrue(student.registerForCourse(offerings.get(0)));
+        assertEquals(List.of(offerings.get(0)), solution.apply());
+        assertTrue(offerings.get(0).getSchedules().isEmpty());
+    }
+
+    @Test
+    public void resultDoesNotDependOnThreadTiming() {
+        Random random = new Random(2);
+        List<Room> rooms = rooms(random, 10);
+        List<CourseOffering> offerings = offerings(random, 160, faculty(40));
+        ScheduleSolver solver = new ScheduleSolver(rooms);
+
+        ScheduleSolver.Solution first = solver.solve(offerings, 1);
+        for (int run = 0; run < 5; run++) {
+            ScheduleSolver.Solution again = solver.solve(offerings, 1);
+            assertEquals(first.getAssignedCount(), again.getAssignedCount());
+            for (CourseOffering offering : offerings) {
+                assertEquals(first.getSchedules(offering).toString(), again.getSchedules(offering).toString());
+            }
+        }
+    }
+
+    @Test
+    public void keepsOfferingsWithStudentsAndBookedRooms() {
+        Room room = new Room("R0", 50);
+        List<Faculty> faculty = faculty(2);
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        ScheduleSolver.MeetingPattern pattern = new ScheduleSolver.MeetingPattern("M 9:00", LocalTime.of(9, 0),
+                LocalTime.of(9, 50), "Monday");
+        ScheduleSolver.MeetingPattern other = new ScheduleSolver.MeetingPattern("T 9:00", LocalTime.of(9, 0),
+                LocalTime.of(9, 50), "Tuesday");
+
+        CourseOffering enrolled = new CourseOffering(1, new Course("K1", "", "", 3, 30, null, graph), "Fall", 2024);
+        enrolled.addSchedule(new CourseSchedule(1, "Monday", LocalTime.of(9, 0), LocalTime.of(9, 50), "R0"));
+        Student student = new Student("s", "s", "secret", "S", "", "", "S1", LocalDate.now(), "Active");
+        assertTrue(student.registerForCourse(enrolled));
+
+        CourseOffering booked = new CourseOffering(2, new Course("K2", "", "", 3, 30, null, graph), "Spring", 2024);
+        booked.addSchedule(new CourseSchedule(2, "Tuesday", LocalTime.of(9, 0), LocalTime.of(9, 50), "R0"));
+
+        CourseOffering fresh = new CourseOffering(3, new Course("K3", "", "", 3, 30, null, graph), "Fall", 2024);
+        faculty.get(0).assignCourse(fresh);
+
+        ScheduleSolver solver = new ScheduleSolver(List.of(room), List.of(pattern, other));
+        solver.addBookings(List.of(booked));
+        ScheduleSolver.Solution solution = solver.solve(List.of(enrolled, fresh), 100);
+
+        assertEquals(List.of(enrolled), solution.getKept());
+        assertEquals(List.of(fresh), solution.getUnassigned()); // Both patterns are booked in the only room
+    }
+
+    @Test
+    public void roomCapacityChangesDoNotAffectSolver() {
+        Room small = new Room("Small", 10);
+        Room large = new Room("Large", 100);
+        ScheduleSolver solver = new ScheduleSolver(List.of(large, small));
+        small.setCapacity(500);
+
+        CourseOffering offering = new CourseOffering(1, new Course("C1", "", "", 3, 50, null,
+                new PrerequisiteGraph()), "Fall", 2024);
+        ScheduleSolver.Solution solution = solver.solve(List.of(offering), 1);
+        assertEquals("Large", solution.getSchedules(offering).get(0).getLocation());
+    }
+}
@@ -0,0 +1,155 @@
+package uni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the per-term timetable checked by Student.registerForCourse
+ */
+public class StudentTimetableTest {
+    private static final String[][] MEETING_PATTERNS = { { "Monday", "Wednesday", "Friday" },
+            { "Tuesday", "Thursday" } };
+
+    private final PrerequisiteGraph graph = new PrerequisiteGraph();
+
+    private CourseOffering offering(int id, String day, int startHour) {
+        return Fixtures.offering(graph, id, day, startHour);
+    }
+
+    private static Student student() {
+        return Fixtures.student("S1");
+    }
+
+    @Test
+    public void rejectsClashWithinTerm() {
+        Student student = student();
+        assertTrue(student.registerForCourse(offering(1, "Monday", 9)));
+        assertFalse(student.registerForCourse(offering(2, "Monday", 9)));
+        assertTrue(student.registerForCourse(offering(3, "Monday", 10)));
+    }
+
+    @Test
+    public void seesScheduleMovedAfterEnrollment() {
+        Student student = student();
+        CourseOffering enrolled = offering(1, "Monday", 9);
+        assertTrue(student.registerForCourse(enrolled));
+        CourseOffering tuesday = offering(2, "Tuesday", 9);
+        assertTrue(student.registerForCourse(offering(3, "Wednesday", 9))); // Builds the cached timetable
+
+        enrolled.getSchedules().get(0).setDayOfWeek("Tuesday");
+        assertFalse(student.registerForCourse(tuesday));
+    }
+
+    @Test
+    public void seesScheduleAddedAfterEnrollment() {
+        Student student = student();
+        CourseOffering enrolled = offering(1, "Monday", 9);
+        assertTrue(student.registerForCourse(enrolled));
+        assertTrue(student.registerForCourse(offering(3, "Wednesday", 9)));
+
+        enrolled.addSchedule(new CourseSchedule(10, "Thursday", LocalTime.of(9, 0), LocalTime.of(9, 50), "Room 1"));
+        assertFalse(student.registerForCourse(offering(2, "Thursday", 9)));
+    }
+
+    @Test
+    public void withdrawFreesSlots() {
+        Student student = student();
+        CourseOffering first = offering(1, "Monday", 9);
+        assertTrue(student.registerForCourse(first));
+        CourseOffering clash = offering(2, "Monday", 9);
+        assertFalse(student.registerForCourse(clash));
+
+        for (Enrollment enrollment : student.getEnrollments()) {
+            enrollment.withdraw();
+        }
+        assertTrue(student.registerForCourse(clash));
+    }
+
+    /**
+     * Conflict check the timetable replaces: every enrolled meeting against
+     * every meeting of the candidate
+     */
+    private static boolean pairwiseConflict(Student student, CourseOffering candidate) {
+        for (Enrollment enrollment : student.getEnrollments()) {
+            if (enrollment.getStatusCode() != StatusCodes.ENROLLED) {
+                continue;
+            }
+            for (CourseSchedule taken : enrollment.getCourseOffering().getSchedules()) {
+                for (CourseSchedule schedule : candidate.getSchedules()) {
+                    if (taken.conflictsWith(schedule)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void checksSixCourseLoadsQuickly() {
+        Random random = new Random(21);
+        List<CourseOffering> catalog = new ArrayList<>();
+        int scheduleId = 0;
+        for (int i = 0; i < 300; i++) {
+            // Three 50-minute or two 75-minute meetings a week, as in a typical catalog
+            CourseOffering offering = Fixtures.offering(graph, i, 3);
+            offering.getCourse().setMaxCapacity(10000);
+            String[] days = MEETING_PATTERNS[random.nextInt(MEETING_PATTERNS.length)];
+            LocalTime start = LocalTime.of(8 + random.nextInt(10), 0);
+            for (String day : days) {
+                offering.addSchedule(new CourseSchedule(scheduleId++, day, start,
+                        start.plusMinutes(days.length == 3 ? 50 : 75), "Room " + i));
+            }
+            catalog.add(offering);
+        }
+
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Student student = Fixtures.student("S" + i);
+            for (int attempt = 0, taken = 0; attempt < 50 && taken < 6; attempt++) {
+                if (student.registerForCourse(catalog.get(random.nextInt(catalog.size())))) {
+                    taken++;
+                }
+            }
+            students.add(student);
+        }
+
+        long start = System.nanoTime();
+        int conflicts = 0;
+        for (Student student : students) {
+            for (CourseOffering candidate : catalog) {
+                if (student.hasScheduleConflict(candidate)) {
+                    conflicts++;
+                }
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        int expected = 0;
+        for (Student student : students) {
+            for (CourseOffering candidate : catalog) {
+                if (pairwiseConflict(student, candidate)) {
+                    expected++;
+                }
+            }
+        }
+        assertEquals(expected, conflicts);
+        assertTrue("600000 conflict checks took " + millis + " ms", millis < 2000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMoveOntoAnotherMeetingOfTheOffering() {
+        CourseOffering offering = offering(1, "Monday", 9);
+        CourseSchedule second = new CourseSchedule(2, "Tuesday", LocalTime.of(9, 0), LocalTime.of(9, 50), "Room 1");
+        offering.addSchedule(second);
+        second.setDayOfWeek("Monday");
+    }
+}
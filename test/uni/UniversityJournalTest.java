@@ -0,0 +1,112 @@
+package uni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the binary startup snapshot kept beside the journal
+ */
+public class UniversityJournalTest {
+    private static final int STUDENTS = 2000;
+    private static final int OFFERINGS = 400;
+    private static final int ENROLLMENTS_PER_STUDENT = 5;
+
+    private Path dir;
+    private Path cacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal");
+        cacheFile = dir.resolve("university.bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Journal a catalog of courses and offerings with students enrolled in them
+     */
+    private void populate() throws IOException {
+        UniversityJournal journal = new UniversityJournal(dir);
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        for (int i = 0; i < OFFERINGS; i++) {
+            CourseOffering offering = Fixtures.offering(graph, i, 3);
+            journal.saveCourse(offering.getCourse());
+            journal.saveOffering(offering);
+        }
+
+        List<EnrollmentRecord> records = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            journal.saveUser(Fixtures.student("S" + i));
+            for (int k = 0; k < ENROLLMENTS_PER_STUDENT; k++) {
+                boolean done = k % 2 == 0;
+                records.add(new EnrollmentRecord(records.size(), "S" + i, (i * ENROLLMENTS_PER_STUDENT + k) % OFFERINGS,
+                        LocalDate.of(2024, 9, 1), done ? "A" : null, done ? "Completed" : "Enrolled"));
+            }
+        }
+        journal.saveEnrollments(records);
+        journal.close();
+    }
+
+    @Test
+    public void firstSaveAfterStartDiscardsSnapshot() throws IOException {
+        populate();
+        assertTrue(Files.exists(cacheFile));
+
+        UniversityJournal journal = new UniversityJournal(dir);
+        UniversityData data = journal.restore();
+        assertEquals(STUDENTS, data.getStudents().size());
+
+        journal.saveUser(Fixtures.student("New"));
+        assertFalse(Files.exists(cacheFile));
+        journal.close();
+
+        UniversityJournal restarted = new UniversityJournal(dir);
+        assertEquals(STUDENTS + 1, restarted.restore().getStudents().size());
+        restarted.close();
+    }
+
+    @Test
+    public void snapshotStartsFasterThanJournal() throws IOException {
+        populate();
+
+        UniversityJournal journal = new UniversityJournal(dir);
+        long start = System.nanoTime();
+        UniversityData fromSnapshot = journal.restore();
+        double snapshotMillis = (System.nanoTime() - start) / 1e6;
+        journal.close();
+
+        Files.delete(cacheFile);
+        journal = new UniversityJournal(dir);
+        start = System.nanoTime();
+        UniversityData fromJournal = journal.restore();
+        double journalMillis = (System.nanoTime() - start) / 1e6;
+        journal.close();
+
+        int enrollments = STUDENTS * ENROLLMENTS_PER_STUDENT;
+        assertEquals(enrollments, fromSnapshot.getEnrollments().size());
+        assertEquals(enrollments, fromJournal.getEnrollments().size());
+        assertTrue(String.format("Snapshot took %.1f ms, journal %.1f ms", snapshotMillis, journalMillis),
+                snapshotMillis < journalMillis);
+    }
+}
@@ -0,0 +1,68 @@
+package uni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests that a burst of drops fills the freed seats from the waitlist
+ */
+public class WaitlistPromoterTest {
+    private static final int SEATS = 2000;
+
+    @Test
+    public void dropStormPromotesEveryWaitlistedStudent() throws InterruptedException {
+        CourseOffering offering = Fixtures.offering(new PrerequisiteGraph(), 1, 3);
+        offering.getCourse().setMaxCapacity(SEATS);
+
+        List<Enrollment> dropped = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            Student student = Fixtures.student("E" + i);
+            assertTrue(student.registerForCourse(offering));
+            dropped.add(offering.getEnrollmentForStudent(student));
+        }
+        List<Student> waiting = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            Student student = Fixtures.student("W" + i);
+            assertTrue(offering.joinWaitlist(student));
+            waiting.add(student);
+        }
+
+        Set<Enrollment> promoted = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(SEATS);
+        WaitlistPromoter promoter = WaitlistPromoter.getInstance();
+        WaitlistPromoter.PromotionListener listener = enrollment -> {
+            if (promoted.add(enrollment)) {
+                done.countDown();
+            }
+        };
+        promoter.addPromotionListener(listener);
+        promoter.resetMetrics();
+        try {
+            long start = System.nanoTime();
+            dropped.parallelStream().forEach(enrollment -> enrollment.getStudent().dropCourse(enrollment));
+            assertTrue("Only " + promoted.size() + " of " + SEATS + " promoted",
+                    done.await(10, TimeUnit.SECONDS));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue("Promoting " + SEATS + " students took " + millis + " ms", millis < 5000);
+            assertEquals(SEATS, promoter.getPromotions());
+            assertEquals(SEATS, offering.getSeatsTaken());
+            assertEquals(0, offering.getWaitlistSize());
+            for (Student student : waiting) {
+                assertNotNull(offering.getEnrollmentForStudent(student));
+            }
+        } finally {
+            promoter.removePromotionListener(listener);
+        }
+    }
+}